@@ -1,45 +1,58 @@
 package dev.saul.gijoneventos.auth;
 
-import dev.saul.gijoneventos.user.UserService;
-import dev.saul.gijoneventos.user.UserEntity;
+import dev.saul.gijoneventos.security.JwtTokenService;
+import dev.saul.gijoneventos.security.JwtTokenService.IssuedToken;
+import dev.saul.gijoneventos.user.UserCache;
+import dev.saul.gijoneventos.user.UserSnapshot;
 import dev.saul.gijoneventos.user.UserDTOResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping(path = "${api-endpoint}")
 public class AuthController {
     
     @Autowired
-    private UserService userService;
+    private UserCache userCache;
+
+    @Autowired
+    private JwtTokenService jwtTokenService;
 
+    // Único punto que verifica la contraseña (Basic + BCrypt); devuelve un JWT para el resto de llamadas
     @GetMapping("/login")
-    public ResponseEntity<UserDTOResponse> login(Authentication authentication) {
+    public ResponseEntity<LoginDTOResponse> login(Authentication authentication) {
         // Obtener el username del usuario autenticado
         String username = authentication.getName();
         
-        // Buscar el usuario en la base de datos
-        UserEntity user = userService.findByUsername(username);
-        String role = authentication.getAuthorities().stream()
-            .map(Object::toString)
-            .findFirst()
-            .orElse("ROLE_USER");
+        // Buscar el usuario (caché; ya se cargó al autenticar con Basic)
+        UserSnapshot user = userCache.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("Usuario no encontrado: " + username));
+        // Roles de la BD (vía caché), no los de la autenticación entrante
+        List<String> roles = user.authorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .toList();
+        String role = roles.isEmpty() ? "ROLE_USER" : roles.get(0);
         
         // Crear DTO con los campos esperados por el frontend
         UserDTOResponse userDTO = new UserDTOResponse(
-            user.getId(),
-            user.getFullName(),
-            user.getUsername(),
-            user.getEmail(),
-            user.getPhone(),
+            user.id(),
+            user.fullName(),
+            user.username(),
+            user.email(),
+            user.phone(),
             role
         );
 
-        return ResponseEntity.ok(userDTO);
+        IssuedToken token = jwtTokenService.issue(user.id(), user.username(), user.fullName(), roles);
+
+        return ResponseEntity.ok(new LoginDTOResponse(userDTO, token.value(), "Bearer", token.expiresIn()));
     }
 }
 
@@ -0,0 +1,13 @@
+package dev.saul.gijoneventos.auth;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import dev.saul.gijoneventos.user.UserDTOResponse;
+
+// Mantiene los campos de UserDTOResponse en la raíz para no romper al frontend
+public record LoginDTOResponse(
+        @JsonUnwrapped UserDTOResponse user,
+        String accessToken,
+        String tokenType,
+        long expiresIn    // segundos
+) {}
@@ -0,0 +1,125 @@
+package dev.saul.gijoneventos.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Puerta de admisión delante del pool JDBC: como mucho maxConcurrent conexiones prestadas a la vez.
+ *
+ * Con hilos virtuales cada petición tiene su propio hilo y miles pueden pedir conexión a la vez;
+ * Hikari las aparca a todas en su cola interna con el mismo connectionTimeout. Aquí esperan en un
+ * semáforo justo (FIFO) con su propio timeout, de modo que el pool solo ve tantas peticiones como
+ * conexiones tiene y el exceso falla con SQLTransientConnectionException en vez de acumularse.
+ *
+ * El permiso se devuelve al cerrar la conexión (una sola vez, aunque close() se llame varias).
+ */
+public class AdmissionControlDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long timeoutNanos;
+    private final LongAdder rejected = new LongAdder();
+
+    public AdmissionControlDataSource(DataSource target, int maxConcurrent, Duration timeout) {
+        super(target);
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("datasource.admission.max-concurrent debe ser al menos 1");
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return guard(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return guard(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int inUse() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int waiting() {
+        return permits.getQueueLength();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new SQLTransientConnectionException(
+                    "Sin conexión a la base de datos tras esperar " + Duration.ofNanos(timeoutNanos).toMillis() + " ms ("
+                        + waiting() + " peticiones en cola)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando una conexión a la base de datos", e);
+        }
+    }
+
+    private Connection guard(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "close":
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    default:
+                        break;
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+}
@@ -0,0 +1,30 @@
+package dev.saul.gijoneventos.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Respuestas en CBOR (application/cbor) y Smile (application/x-jackson-smile) además de JSON, elegidas
+ * por la cabecera Accept. Son los mismos DTO con el mismo mapeo: se parte del Jackson2ObjectMapperBuilder
+ * de Spring Boot (spring.jackson.*) y solo cambia la factoría, así que el esquema es el de EventDTOResponse.
+ */
+@Configuration(proxyBeanMethods = false)
+public class BinaryFormatsConfiguration {
+
+    // Sustituyen a los convertidores por defecto del mismo tipo, que no aplican spring.jackson.*
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
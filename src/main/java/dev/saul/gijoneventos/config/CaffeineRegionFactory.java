@@ -0,0 +1,115 @@
+package dev.saul.gijoneventos.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Caché de segundo nivel de Hibernate sobre Caffeine, en memoria del proceso (una región = una caché).
+ *
+ * Se configura con propiedades de Hibernate (spring.jpa.properties.*):
+ *  - hibernate.cache.caffeine.default.maximum-size / .expire-after-write para todas las regiones,
+ *  - hibernate.cache.caffeine.<región>.maximum-size / .expire-after-write para una en concreto.
+ * La región de marcas de tiempo de la caché de consultas nunca expulsa entradas: perder una haría
+ * válidos resultados de consultas anteriores a una escritura.
+ */
+public class CaffeineRegionFactory extends RegionFactoryTemplate {
+
+    static final String PREFIX = "hibernate.cache.caffeine.";
+
+    private Map<String, Object> settings = Map.of();
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions options, Map<String, Object> configValues) {
+        this.settings = configValues;
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        settings = Map.of();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+            DomainDataRegionBuildingContext buildingContext) {
+        return new CaffeineStorageAccess(bounded(regionConfig.getRegionName()));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new CaffeineStorageAccess(bounded(regionName));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new CaffeineStorageAccess(Caffeine.newBuilder().build());
+    }
+
+    private Cache<Object, Object> bounded(String regionName) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        long maximumSize = Long.parseLong(setting(regionName, "maximum-size", "10000"));
+        builder.maximumSize(maximumSize);
+        String expireAfterWrite = setting(regionName, "expire-after-write", "");
+        if (!expireAfterWrite.isBlank()) {
+            builder.expireAfterWrite(Duration.parse(expireAfterWrite));
+        }
+        return builder.build();
+    }
+
+    private String setting(String regionName, String key, String defaultValue) {
+        Object value = settings.get(PREFIX + regionName + "." + key);
+        if (value == null) {
+            value = settings.get(PREFIX + "default." + key);
+        }
+        return value == null ? defaultValue : value.toString().trim();
+    }
+
+    private record CaffeineStorageAccess(Cache<Object, Object> cache) implements DomainDataStorageAccess {
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return cache.getIfPresent(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            if (value == null) {
+                cache.invalidate(key);
+            } else {
+                cache.put(key, value);
+            }
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return cache.asMap().containsKey(key);
+        }
+
+        @Override
+        public void evictData() {
+            cache.invalidateAll();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            cache.invalidate(key);
+        }
+
+        @Override
+        public void release() {
+            cache.invalidateAll();
+            cache.cleanUp();
+        }
+    }
+}
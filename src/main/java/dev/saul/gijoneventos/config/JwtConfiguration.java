@@ -0,0 +1,140 @@
+package dev.saul.gijoneventos.config;
+
+import java.io.InputStream;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+/**
+ * Claves y codificador/decodificador de los JWT emitidos por /login.
+ *
+ * Las claves RSA se leen de un keystore PKCS12 local. La primera alias de jwt.keystore.aliases
+ * firma los tokens nuevos; el resto solo se aceptan para verificar, lo que permite rotar la clave
+ * sin invalidar los tokens ya emitidos. Sin keystore se genera una clave efímera (solo desarrollo).
+ */
+@Configuration
+public class JwtConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtConfiguration.class);
+
+    public static final String ROLES_CLAIM = "roles";
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String NAME_CLAIM = "name";
+
+    @Value("${jwt.issuer:gijoneventos}")
+    String issuer;
+
+    @Value("${jwt.keystore.location:}")
+    String keystoreLocation;
+
+    @Value("${jwt.keystore.password:}")
+    String keystorePassword;
+
+    @Value("${jwt.keystore.aliases:}")
+    List<String> keystoreAliases;
+
+    // La primera clave del conjunto es la de firma (ver JwtTokenService)
+    @Bean
+    JWKSet jwkSet(ResourceLoader resourceLoader) throws Exception {
+        List<JWK> keys = keystoreLocation.isBlank()
+            ? List.of(ephemeralKey())
+            : loadKeys(resourceLoader.getResource(keystoreLocation));
+        return new JWKSet(keys);
+    }
+
+    @Bean
+    JWKSource<SecurityContext> jwkSource(JWKSet jwkSet) {
+        return new ImmutableJWKSet<>(jwkSet);
+    }
+
+    @Bean
+    JwtEncoder jwtEncoder(JWKSource<SecurityContext> jwkSource) {
+        return new NimbusJwtEncoder(jwkSource);
+    }
+
+    @Bean
+    JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource) {
+        // La verificación es local: se elige la clave por el "kid" de la cabecera, sin red ni BD
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        processor.setJWTClaimsSetVerifier((claims, context) -> { }); // Spring valida los claims abajo
+
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+        return decoder;
+    }
+
+    @Bean
+    JwtAuthenticationConverter jwtAuthenticationConverter() {
+        // Los roles viajan ya con prefijo (ROLE_ADMIN, ROLE_USER), igual que en RoleEntity
+        JwtGrantedAuthoritiesConverter authorities = new JwtGrantedAuthoritiesConverter();
+        authorities.setAuthoritiesClaimName(ROLES_CLAIM);
+        authorities.setAuthorityPrefix("");
+
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authorities);
+        return converter;
+    }
+
+    private List<JWK> loadKeys(Resource resource) throws Exception {
+        if (keystoreAliases.isEmpty()) {
+            throw new IllegalStateException("jwt.keystore.aliases es obligatorio cuando se configura jwt.keystore.location");
+        }
+        char[] password = keystorePassword.toCharArray();
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = resource.getInputStream()) {
+            keyStore.load(in, password);
+        }
+        List<JWK> keys = new ArrayList<>();
+        for (String alias : keystoreAliases) {
+            RSAKey key = RSAKey.load(keyStore, alias.trim(), password);
+            if (key == null) {
+                throw new IllegalStateException("No existe una clave RSA con alias '" + alias + "' en " + keystoreLocation);
+            }
+            keys.add(new RSAKey.Builder(key).keyID(alias.trim()).build());
+        }
+        return keys;
+    }
+
+    private RSAKey ephemeralKey() throws NoSuchAlgorithmException {
+        log.warn("jwt.keystore.location no configurado: se usa una clave RSA efímera, los tokens no sobreviven a un reinicio");
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        return new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+            .privateKey((RSAPrivateKey) keyPair.getPrivate())
+            .keyID(UUID.randomUUID().toString())
+            .build();
+    }
+}
@@ -2,9 +2,12 @@ package dev.saul.gijoneventos.config;
 
 import static org.springframework.security.config.Customizer.withDefaults;
 import dev.saul.gijoneventos.security.JpaUserDetailsService;
+import dev.saul.gijoneventos.security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -12,6 +15,7 @@ import org.springframework.security.config.annotation.web.configurers.HeadersCon
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -26,12 +30,35 @@ public class SecurityConfiguration {
     String endpoint;
 
     private final JpaUserDetailsService jpaUserDetailsService;
+    private final JwtAuthenticationConverter jwtAuthenticationConverter;
 
-    public SecurityConfiguration(JpaUserDetailsService jpaUserDetailsService) {
+    public SecurityConfiguration(JpaUserDetailsService jpaUserDetailsService,
+                                 JwtAuthenticationConverter jwtAuthenticationConverter) {
         this.jpaUserDetailsService = jpaUserDetailsService;
+        this.jwtAuthenticationConverter = jwtAuthenticationConverter;
+    }
+
+    // /login es el único punto que verifica la contraseña: solo acepta Basic. Si aceptara también el JWT,
+    // un token válido podría pedir otro sin contraseña y renovarse indefinidamente.
+    @Bean
+    @Order(1)
+    SecurityFilterChain loginFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher(endpoint + "/login")
+            .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+            .csrf(csrf -> csrf.disable())
+            .authorizeHttpRequests(auth -> auth
+                .anyRequest().hasAnyRole("USER", "ADMIN"))
+            .userDetailsService(jpaUserDetailsService)
+            .httpBasic(withDefaults())
+            .sessionManagement(session -> session
+                .sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+
+        return http.build();
     }
 
      @Bean
+    @Order(2)
     SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             // Habilita CORS usando la configuración definida en corsConfigurationSource()
@@ -48,19 +75,26 @@ public class SecurityConfiguration {
             .authorizeHttpRequests(auth -> auth
                 // IMPORTANTE: Las rutas más específicas primero, anyRequest() SIEMPRE al final
                 .requestMatchers("/h2-console/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers(endpoint + "/public").permitAll()
                 .requestMatchers(endpoint + "/register", endpoint + "/register/**").permitAll()
                 .requestMatchers(HttpMethod.GET, endpoint + "/private").hasRole("ADMIN")
-                .requestMatchers(endpoint + "/login").hasAnyRole("USER", "ADMIN")
+                .requestMatchers(HttpMethod.GET, endpoint + "/events/export").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.GET, endpoint + "/events/**").permitAll()
+                .requestMatchers(HttpMethod.POST, endpoint + "/events/import").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.POST, endpoint + "/events/**").authenticated()
+                .requestMatchers(HttpMethod.PUT, endpoint + "/events/*/ticket-drop").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, endpoint + "/events/**").authenticated()
                 .requestMatchers(HttpMethod.DELETE, endpoint + "/events/**").authenticated()
                 .anyRequest().authenticated())
             .userDetailsService(jpaUserDetailsService)
+            // Basic (BCrypt) se mantiene para clientes antiguos; el resto usa el JWT emitido en /login
             .httpBasic(withDefaults())
+            .oauth2ResourceServer(oauth2 -> oauth2
+                .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter)))
             .sessionManagement(session -> session
-                .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED));
+                .sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
         return http.build();
     }
@@ -99,10 +133,10 @@ public class SecurityConfiguration {
         return http.build();
     } */
 
-    // Password encoder para almacenar contraseñas de forma segura (BCrypt)
+    // Password encoder para almacenar contraseñas de forma segura (BCrypt), medido en auth.password.hash
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     // Configuración global de CORS para permitir que el frontend se comunique con el backend
@@ -0,0 +1,53 @@
+package dev.saul.gijoneventos.config;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import dev.saul.gijoneventos.metrics.SqlBudgetFilter;
+import dev.saul.gijoneventos.metrics.StatementCountingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Diagnóstico de SQL por petición (diagnostics.sql.enabled, activo en el perfil h2): cuenta
+ * sentencias, filas y tiempo en la base de datos de cada petición y avisa cuando un endpoint supera
+ * su presupuesto. Pensado para desarrollo y tests, donde se detectan los N+1 antes de producción.
+ */
+@Configuration
+@ConditionalOnProperty(name = "diagnostics.sql.enabled", havingValue = "true")
+public class SqlDiagnosticsConfiguration {
+
+    // static: los BeanPostProcessor se crean antes que el resto de la configuración
+    @Bean
+    static BeanPostProcessor statementCounting() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Delante de Spring Security para contar también la carga del usuario en la autenticación
+    @Bean
+    FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(MeterRegistry registry,
+            @Value("${diagnostics.sql.budget.default:0}") long defaultBudget,
+            @Value("${diagnostics.sql.budget.endpoints:}") List<String> budgets,
+            @Value("${diagnostics.sql.headers:false}") boolean headers) {
+        FilterRegistrationBean<SqlBudgetFilter> registration =
+            new FilterRegistrationBean<>(new SqlBudgetFilter(registry, defaultBudget, budgets, headers));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
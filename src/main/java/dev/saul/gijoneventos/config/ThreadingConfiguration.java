@@ -0,0 +1,80 @@
+package dev.saul.gijoneventos.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Modo de ejecución con hilos virtuales (spring.threads.virtual.enabled).
+ *
+ * Spring Boot ya pasa Tomcat, @Async, @Scheduled y las peticiones asíncronas de MVC a hilos
+ * virtuales con esa propiedad; aquí se añade lo que necesita la aplicación para usarlo sin sorpresas:
+ * la puerta de admisión delante del pool JDBC (AdmissionControlDataSource, sus métricas
+ * datasource.admission.*) y el diagnóstico de fijado (VirtualThreadPinningMonitor).
+ */
+@Configuration
+public class ThreadingConfiguration {
+
+    // static: los BeanPostProcessor se crean antes que el resto de la configuración
+    @Bean
+    @ConditionalOnProperty(name = "datasource.admission.enabled", havingValue = "true")
+    static BeanPostProcessor dataSourceAdmission(Environment environment) {
+        Binder binder = Binder.get(environment);
+        int maxConcurrent = binder.bind("datasource.admission.max-concurrent", Integer.class).orElse(10);
+        Duration timeout = binder.bind("datasource.admission.timeout", Duration.class).orElse(Duration.ofSeconds(5));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof AdmissionControlDataSource)) {
+                    return new AdmissionControlDataSource(dataSource, maxConcurrent, timeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder dataSourceAdmissionMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof AdmissionControlDataSource admission) {
+                bind(registry, admission);
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry registry,
+            @Value("${diagnostics.virtual-threads.pinned-threshold:PT0.02S}") Duration threshold) {
+        return new VirtualThreadPinningMonitor(registry, threshold);
+    }
+
+    private static void bind(MeterRegistry registry, AdmissionControlDataSource admission) {
+        Gauge.builder("datasource.admission.in-use", admission, AdmissionControlDataSource::inUse)
+            .description("Conexiones prestadas a través de la puerta de admisión")
+            .register(registry);
+        Gauge.builder("datasource.admission.waiting", admission, AdmissionControlDataSource::waiting)
+            .description("Peticiones esperando turno para pedir conexión")
+            .register(registry);
+        Gauge.builder("datasource.admission.max", admission, AdmissionControlDataSource::maxConcurrent)
+            .register(registry);
+        FunctionCounter.builder("datasource.admission.rejected", admission, AdmissionControlDataSource::rejected)
+            .description("Peticiones que agotaron datasource.admission.timeout sin conexión")
+            .register(registry);
+    }
+}
@@ -0,0 +1,77 @@
+package dev.saul.gijoneventos.config;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Diagnóstico de hilos virtuales fijados a su hilo portador.
+ *
+ * Escucha en proceso los eventos JFR jdk.VirtualThreadPinned (un hilo virtual que se bloquea dentro
+ * de un synchronized o de código nativo y no puede desmontarse) a partir de un umbral, y los publica
+ * como el timer jvm.threads.virtual.pinned. Cada aviso se registra en DEBUG con el método culpable.
+ * Solo se crea con spring.threads.virtual.enabled=true.
+ */
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+
+    private final Timer pinned;
+    private final Duration threshold;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry registry, Duration threshold) {
+        this.threshold = threshold;
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+            .description("Bloqueos de hilos virtuales sin poder liberar su hilo portador (JFR jdk.VirtualThreadPinned)")
+            .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED, this::record);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void record(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        if (log.isDebugEnabled()) {
+            log.debug("Hilo virtual fijado {} ms en {}", event.getDuration().toMillis(), culprit(event));
+        }
+    }
+
+    // Primer marco de la aplicación en la pila, o el de arriba del todo si no hay ninguno
+    private static String culprit(RecordedEvent event) {
+        if (event.getStackTrace() == null || event.getStackTrace().getFrames().isEmpty()) {
+            return "?";
+        }
+        RecordedFrame top = event.getStackTrace().getFrames().get(0);
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            if (frame.getMethod().getType().getName().startsWith("dev.saul.")) {
+                top = frame;
+                break;
+            }
+        }
+        return top.getMethod().getType().getName() + "." + top.getMethod().getName() + ":" + top.getLineNumber();
+    }
+}
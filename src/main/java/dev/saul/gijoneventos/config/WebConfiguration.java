@@ -0,0 +1,31 @@
+package dev.saul.gijoneventos.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import dev.saul.gijoneventos.security.CurrentUserArgumentResolver;
+
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver());
+    }
+
+    // Búfer de lectura que Tomcat reserva por conexión (8 KB por defecto). Con miles de suscriptores SSE
+    // abiertos pesa en el heap; una petición que no cabe solo se lee en más pasadas
+    @Bean
+    WebServerFactoryCustomizer<TomcatServletWebServerFactory> connectionReadBuffer(
+            @Value("${web.connection.read-buffer-size:8192}") int readBufferSize) {
+        return factory -> factory.addConnectorCustomizers(
+            connector -> connector.setProperty("socket.appReadBufSize", String.valueOf(readBufferSize)));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package dev.saul.gijoneventos.event;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Aforo de un evento tal y como se difunde en GET /events/{id}/stream.
+ */
+public record Attendance(Long eventId, int attendeeCount, int maxAttendees) {
+
+    @JsonProperty
+    public int remaining() {
+        return Math.max(0, maxAttendees - attendeeCount);
+    }
+}
@@ -0,0 +1,4 @@
+package dev.saul.gijoneventos.event;
+
+// Fila del export de asistencia: un asistente de un evento
+public record AttendanceRow(Long eventId, Long userId, String username) {}
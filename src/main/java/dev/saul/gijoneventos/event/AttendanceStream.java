@@ -0,0 +1,326 @@
+package dev.saul.gijoneventos.event;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Difusión del aforo de los eventos por Server-Sent Events (GET /events/{id}/stream).
+ *
+ * joinEvent y leaveEvent solo marcan el evento como pendiente (O(1), sin E/S). Un único hilo despachador,
+ * cada events.stream.interval, lee de una vez el aforo de todos los eventos pendientes, construye un solo
+ * mensaje por evento, ya codificado en bytes, y lo deja en la cola de cada suscripción: una ráfaga
+ * de joins produce como mucho un mensaje por evento e intervalo. Las conexiones son asíncronas (SseEmitter), así que un suscriptor
+ * inactivo no ocupa ningún hilo, solo su emisor y su socket.
+ *
+ * El despachador nunca escribe en un socket: cada suscripción tiene una cola acotada (events.stream.max-pending)
+ * que vacía un hilo virtual propio mientras haya mensajes. Un cliente lento o parado solo bloquea a su escritor;
+ * si se le llena la cola o una escritura pasa de events.stream.write-timeout se le da de baja y se cierra su
+ * conexión (EventSource vuelve a conectar y recibe el aforo actual).
+ *
+ * En modo "ticket drop" el número de asistentes se toma de ReservationLedger, que va por delante de la BD.
+ */
+@Component
+public class AttendanceStream implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(AttendanceStream.class);
+
+    private static final Set<DataWithMediaType> PING = frame(": ping\n\n");
+    // Marca de fin en la cola de un suscriptor: su escritor cierra la conexión al llegar a ella
+    private static final Set<DataWithMediaType> CLOSE = Set.of();
+
+    private final EventRepository eventRepository;
+    private final ReservationLedger reservationLedger;
+    private final ObjectMapper objectMapper;
+    private final Duration interval;
+    private final Duration heartbeat;
+    private final Duration timeout;
+    private final int maxPending;
+    private final long writeTimeoutNanos;
+
+    private final Map<Long, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicLong dropped = new AtomicLong();
+    private final ScheduledExecutorService dispatcher =
+        Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("attendance-stream").daemon().factory());
+    private final ExecutorService writers =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("attendance-stream-writer-", 0).factory());
+
+    public AttendanceStream(EventRepository eventRepository, ReservationLedger reservationLedger, ObjectMapper objectMapper,
+                            @Value("${events.stream.interval:PT1S}") Duration interval,
+                            @Value("${events.stream.heartbeat:PT30S}") Duration heartbeat,
+                            @Value("${events.stream.timeout:PT30M}") Duration timeout,
+                            @Value("${events.stream.max-pending:16}") int maxPending,
+                            @Value("${events.stream.write-timeout:PT10S}") Duration writeTimeout) {
+        this.eventRepository = eventRepository;
+        this.reservationLedger = reservationLedger;
+        this.objectMapper = objectMapper;
+        this.interval = interval;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+        this.maxPending = maxPending;
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+    }
+
+    @PostConstruct
+    void start() {
+        dispatcher.scheduleWithFixedDelay(this::dispatchSafely, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        // Mantiene vivas las conexiones a través de proxies y detecta los clientes que ya se fueron
+        dispatcher.scheduleWithFixedDelay(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        dispatcher.shutdownNow();
+        topics.values().forEach(subscribers -> subscribers.forEach(subscriber -> enqueue(subscriber, CLOSE)));
+        topics.clear();
+        writers.shutdown();
+    }
+
+    // Alta de un suscriptor: recibe en el acto el aforo actual y después solo los cambios
+    public SseEmitter subscribe(Long eventId) {
+        return subscribe(eventId, new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter subscribe(Long eventId, SseEmitter emitter) {
+        Attendance current = load(List.of(eventId)).stream().findFirst()
+            .orElseThrow(() -> new EntityNotFoundException("Evento no encontrado con ID: " + eventId));
+        Subscriber subscriber = new Subscriber(eventId, emitter, maxPending);
+        topics.compute(eventId, (id, subscribers) -> {
+            Set<Subscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        // El aforo actual va en el hilo de la petición: el emisor aún no está inicializado y lo guarda hasta que
+        // MVC abre la respuesta. Desde otro hilo podría escribir en ella mientras la petición sigue en curso
+        try {
+            emitter.send(attendanceFrame(current));
+        } catch (IOException e) {
+            unsubscribe(subscriber);
+        }
+        return emitter;
+    }
+
+    // Llamado tras cada join/leave confirmado; sin suscriptores no hay nada que hacer
+    public void changed(Long eventId) {
+        if (topics.containsKey(eventId)) {
+            pending.add(eventId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        switch (change.type()) {
+            // El aforo puede haber cambiado
+            case UPDATED -> change.eventIds().forEach(this::changed);
+            case DELETED -> change.eventIds().forEach(this::close);
+            default -> { }
+        }
+    }
+
+    public int subscribers() {
+        return topics.values().stream().mapToInt(Set::size).sum();
+    }
+
+    // Suscriptores dados de baja por lentos desde el arranque
+    public long dropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("events.stream.subscribers", this, AttendanceStream::subscribers)
+            .description("Conexiones abiertas a GET /events/{id}/stream")
+            .register(registry);
+        FunctionCounter.builder("events.stream.dropped", this, AttendanceStream::dropped)
+            .description("Suscriptores dados de baja por no leer a tiempo")
+            .register(registry);
+    }
+
+    // Un mensaje por evento pendiente, construido una vez y escrito en todas sus suscripciones
+    void dispatch() {
+        List<Long> eventIds = new ArrayList<>();
+        // Se sacan de 'pending' antes de leer la BD: un cambio posterior vuelve a marcarlos
+        for (Iterator<Long> it = pending.iterator(); it.hasNext(); ) {
+            eventIds.add(it.next());
+            it.remove();
+        }
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        for (Attendance attendance : load(eventIds)) {
+            Set<Subscriber> subscribers = topics.get(attendance.eventId());
+            if (subscribers != null) {
+                Set<DataWithMediaType> frame = attendanceFrame(attendance);
+                subscribers.forEach(subscriber -> enqueue(subscriber, frame));
+            }
+        }
+    }
+
+    private void dispatchSafely() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            // Una excepción cancelaría la tarea periódica: se registra y se sigue en el siguiente intervalo
+            log.warn("Error difundiendo el aforo de los eventos", e);
+        }
+    }
+
+    // Latido y, de paso, baja de los suscriptores con una escritura atascada más de events.stream.write-timeout
+    void heartbeat() {
+        long now = System.nanoTime();
+        topics.values().forEach(subscribers -> subscribers.forEach(subscriber -> {
+            long since = subscriber.writingSince;
+            if (since != 0 && now - since > writeTimeoutNanos) {
+                drop(subscriber);
+            } else {
+                enqueue(subscriber, PING);
+            }
+        }));
+    }
+
+    private void close(Long eventId) {
+        Set<Subscriber> subscribers = topics.remove(eventId);
+        if (subscribers != null) {
+            Set<DataWithMediaType> frame = frame("event:deleted\ndata:" + eventId + "\n\n");
+            subscribers.forEach(subscriber -> {
+                enqueue(subscriber, frame);
+                enqueue(subscriber, CLOSE);
+            });
+        }
+    }
+
+    private List<Attendance> load(Collection<Long> eventIds) {
+        return eventRepository.findAttendanceByIds(eventIds).stream()
+            .map(attendance -> reservationLedger.taken(attendance.eventId())
+                .map(taken -> new Attendance(attendance.eventId(), taken, attendance.maxAttendees()))
+                .orElse(attendance))
+            .toList();
+    }
+
+    private Set<DataWithMediaType> attendanceFrame(Attendance attendance) {
+        try {
+            return frame("event:attendance\ndata:" + objectMapper.writeValueAsString(attendance) + "\n\n");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Mensaje SSE completo en un solo bloque de bytes: una escritura y un flush por suscriptor
+    private static Set<DataWithMediaType> frame(String text) {
+        return Set.of(new DataWithMediaType(text.getBytes(StandardCharsets.UTF_8), MediaType.TEXT_EVENT_STREAM));
+    }
+
+    // Nunca bloquea: con la cola llena el suscriptor no está leyendo y se le da de baja
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> frame) {
+        if (!subscriber.outbox.offer(frame)) {
+            drop(subscriber);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            writers.execute(() -> drain(subscriber));
+        }
+    }
+
+    // Escritor de un suscriptor: un solo hilo virtual a la vez, que termina cuando la cola se vacía
+    private void drain(Subscriber subscriber) {
+        do {
+            for (Set<DataWithMediaType> frame; (frame = subscriber.outbox.poll()) != null; ) {
+                if (frame == CLOSE) {
+                    if (subscriber.closed.compareAndSet(false, true)) {
+                        subscriber.emitter.complete();
+                    }
+                    continue;
+                }
+                subscriber.writingSince = System.nanoTime();
+                try {
+                    subscriber.emitter.send(frame);
+                } catch (IOException | IllegalStateException e) {
+                    // Cliente desconectado o emisor ya cerrado
+                    unsubscribe(subscriber);
+                    subscriber.outbox.clear();
+                } finally {
+                    subscriber.writingSince = 0;
+                }
+            }
+            subscriber.draining.set(false);
+            // Un mensaje encolado justo después del último poll() no puede quedarse sin escritor
+        } while (!subscriber.outbox.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    // El cierre va en un hilo virtual aparte: si el escritor está atascado, complete() espera a que suelte el emisor
+    private void drop(Subscriber subscriber) {
+        unsubscribe(subscriber);
+        if (subscriber.closed.compareAndSet(false, true)) {
+            dropped.incrementAndGet();
+            log.debug("Suscriptor lento del evento {} dado de baja", subscriber.eventId);
+            subscriber.outbox.clear();
+            writers.execute(subscriber.emitter::complete);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        topics.computeIfPresent(subscriber.eventId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    // Una conexión: su emisor, los mensajes pendientes de escribir y si tiene un escritor en marcha
+    private static final class Subscriber {
+
+        private final Long eventId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> outbox;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // Cierre pedido (fin de la suscripción o baja por lento): la conexión se completa una sola vez
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // System.nanoTime() del inicio de la escritura en curso; 0 si no hay ninguna
+        private volatile long writingSince;
+
+        private Subscriber(Long eventId, SseEmitter emitter, int maxPending) {
+            this.eventId = eventId;
+            this.emitter = emitter;
+            this.outbox = new ArrayBlockingQueue<>(maxPending);
+        }
+    }
+}
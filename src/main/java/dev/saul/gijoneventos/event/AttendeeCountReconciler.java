@@ -0,0 +1,44 @@
+package dev.saul.gijoneventos.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Al arrancar, recalcula events.attendee_count a partir de event_attendees.
+ *
+ * Cubre las filas creadas antes de existir el contador (ddl-auto=update las deja a 0)
+ * y cualquier inserción hecha a mano sobre la tabla de unión.
+ */
+@Component
+@ConditionalOnProperty(name = "events.attendee-count.reconcile-on-startup", havingValue = "true", matchIfMissing = true)
+public class AttendeeCountReconciler implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(AttendeeCountReconciler.class);
+
+    private final EventRepository eventRepository;
+    private final EventCatalogVersion catalogVersion;
+    private final TransactionTemplate transactionTemplate;
+
+    public AttendeeCountReconciler(EventRepository eventRepository, EventCatalogVersion catalogVersion,
+                                   PlatformTransactionManager transactionManager) {
+        this.eventRepository = eventRepository;
+        this.catalogVersion = catalogVersion;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int updated = transactionTemplate.execute(status -> eventRepository.reconcileAttendeeCounts());
+        if (updated > 0) {
+            // Tomcat ya atiende peticiones: un listado servido antes de corregir no debe validarse después
+            catalogVersion.changed();
+        }
+        log.info("Contadores de asistentes corregidos en {} eventos", updated);
+    }
+}
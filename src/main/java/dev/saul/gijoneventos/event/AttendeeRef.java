@@ -0,0 +1,8 @@
+package dev.saul.gijoneventos.event;
+
+/**
+ * Fila (evento, asistente) de event_attendees. Permite obtener los ids de asistentes
+ * de una página completa en una sola consulta sin hidratar UserEntity.
+ */
+public record AttendeeRef(Long eventId, Long userId) {
+}
@@ -0,0 +1,14 @@
+package dev.saul.gijoneventos.event;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Página de eventos tal como sale de la BD, para CompactEventPageConverter: las proyecciones sin copiar
+ * a DTO y los ids de asistentes de cada evento en un long[] ordenado (null con includeAttendees=false).
+ */
+public record CompactEventPage(
+        List<EventSummary> events,
+        Map<Long, long[]> attendeeIds,
+        String nextCursor   // null cuando no quedan más páginas
+) {}
@@ -0,0 +1,116 @@
+package dev.saul.gijoneventos.event;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Escribe un CompactEventPage como application/vnd.gijoneventos.compact+json con el JsonGenerator de
+ * Jackson, campo a campo desde las proyecciones: sin copia a EventDTOResponse ni serialización por reflexión.
+ *
+ * Frente al JSON normal cambia el formato: cada evento lleva organizerId y los organizadores van una
+ * sola vez en "organizers" (por id y sin el campo role, que siempre iba vacío); "attendees" se escribe
+ * desde un long[] y se omite con includeAttendees=false, igual que latitude/longitude cuando faltan.
+ *
+ * {"items":[{"id":1,...,"organizerId":3,"attendees":[5,8],...}],"organizers":{"3":{...}},"nextCursor":null}
+ */
+@Component
+public class CompactEventPageConverter extends AbstractHttpMessageConverter<CompactEventPage> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.gijoneventos.compact+json";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private static final long[] NO_ATTENDEES = new long[0];
+
+    private final JsonFactory jsonFactory;
+
+    public CompactEventPageConverter(ObjectMapper objectMapper) {
+        super(MEDIA_TYPE);
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CompactEventPage.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected CompactEventPage readInternal(Class<? extends CompactEventPage> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("El formato compacto es solo de salida", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(CompactEventPage page, HttpOutputMessage outputMessage) throws IOException {
+        write(page, outputMessage.getBody());
+    }
+
+    public void write(CompactEventPage page, OutputStream out) throws IOException {
+        try (JsonGenerator json = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            // El stream es de quien lo abrió (la respuesta HTTP)
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Map<Long, EventSummary> organizers = new LinkedHashMap<>();
+            json.writeStartObject();
+            json.writeArrayFieldStart("items");
+            for (EventSummary event : page.events()) {
+                writeEvent(json, event, page.attendeeIds());
+                organizers.putIfAbsent(event.organizerId(), event);
+            }
+            json.writeEndArray();
+            json.writeObjectFieldStart("organizers");
+            for (EventSummary event : organizers.values()) {
+                json.writeObjectFieldStart(String.valueOf(event.organizerId()));
+                json.writeNumberField("id", event.organizerId());
+                json.writeStringField("fullName", event.organizerFullName());
+                json.writeStringField("username", event.organizerUsername());
+                json.writeStringField("email", event.organizerEmail());
+                json.writeStringField("phone", event.organizerPhone());
+                json.writeEndObject();
+            }
+            json.writeEndObject();
+            json.writeStringField("nextCursor", page.nextCursor());
+            json.writeEndObject();
+        }
+    }
+
+    private static void writeEvent(JsonGenerator json, EventSummary event, Map<Long, long[]> attendeeIds) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", event.id());
+        json.writeStringField("title", event.title());
+        json.writeStringField("description", event.description());
+        json.writeStringField("date", event.date().toString());
+        json.writeStringField("location", event.location());
+        json.writeNumberField("organizerId", event.organizerId());
+        if (attendeeIds != null) {
+            long[] ids = attendeeIds.getOrDefault(event.id(), NO_ATTENDEES);
+            json.writeFieldName("attendees");
+            json.writeArray(ids, 0, ids.length);
+        }
+        json.writeNumberField("attendeeCount", event.attendeeCount());
+        json.writeNumberField("maxAttendees", event.maxAttendees());
+        if (event.latitude() != null) {
+            json.writeNumberField("latitude", event.latitude());
+        }
+        if (event.longitude() != null) {
+            json.writeNumberField("longitude", event.longitude());
+        }
+        json.writeEndObject();
+    }
+}
@@ -0,0 +1,43 @@
+package dev.saul.gijoneventos.event;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Versión del catálogo entero para los GET /events condicionales, en memoria: validar un listado no
+ * cuesta ninguna consulta (el agregado COUNT/SUM(version)/MAX(last_modified) recorría toda la tabla
+ * events en cada petición, más caro que la propia página por keyset).
+ *
+ * Sube con cada cambio ya confirmado en la BD: altas, cambios, bajas e importaciones llegan por
+ * EventChangedEvent; joins y leaves desde EventService, los volcados desde ReservationLedger y la
+ * reconciliación de contadores desde AttendeeCountReconciler. El ETag lleva la hora de arranque de la
+ * instancia, así que tras un reinicio ningún ETag anterior vale.
+ *
+ * Pensado para una sola instancia, como ReservationLedger. Los cambios hechos fuera de la aplicación
+ * (SQL a mano) no cambian el ETag del listado hasta el siguiente cambio o reinicio; el de cada evento
+ * sigue saliendo de sus columnas version y last_modified.
+ */
+@Component
+public class EventCatalogVersion {
+
+    private final AtomicReference<EventVersion> current =
+        new AtomicReference<>(new EventVersion(System.currentTimeMillis(), 0, LocalDateTime.now()));
+
+    public EventVersion current() {
+        return current.get();
+    }
+
+    // Llamar después del commit: antes, un listado aún sin el cambio quedaría guardado con el ETag nuevo
+    public void changed() {
+        LocalDateTime now = LocalDateTime.now();
+        current.updateAndGet(version -> new EventVersion(version.epoch(), version.version() + 1, now));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        changed();
+    }
+}
@@ -0,0 +1,30 @@
+package dev.saul.gijoneventos.event;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evento de aplicación publicado por EventService y EventImportService cuando se crean, modifican
+ * o borran eventos. Los índices en memoria lo escuchan tras el commit (@TransactionalEventListener)
+ * y leen de la BD lo que necesiten de los eventos afectados.
+ */
+public record EventChangedEvent(ChangeType type, Collection<Long> eventIds) {
+
+    public enum ChangeType { CREATED, UPDATED, DELETED }
+
+    public static EventChangedEvent created(Long id) {
+        return new EventChangedEvent(ChangeType.CREATED, List.of(id));
+    }
+
+    public static EventChangedEvent created(Collection<Long> ids) {
+        return new EventChangedEvent(ChangeType.CREATED, List.copyOf(ids));
+    }
+
+    public static EventChangedEvent updated(Long id) {
+        return new EventChangedEvent(ChangeType.UPDATED, List.of(id));
+    }
+
+    public static EventChangedEvent deleted(Long id) {
+        return new EventChangedEvent(ChangeType.DELETED, List.of(id));
+    }
+}
@@ -1,106 +1,248 @@
 package dev.saul.gijoneventos.event;
 
-import dev.saul.gijoneventos.user.UserEntity;
-import dev.saul.gijoneventos.user.UserRepository;
-import dev.saul.gijoneventos.user.UserDTOResponse;
+import dev.saul.gijoneventos.security.AuthenticatedUser;
+import dev.saul.gijoneventos.security.CurrentUser;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping(path = "${api-endpoint}/events")
 public class EventController {
 
+    // Los clientes pueden guardar la respuesta, pero deben revalidarla (If-None-Match) antes de reutilizarla
+    private static final String REVALIDATE = CacheControl.noCache().getHeaderValue();
+
     private final EventService eventService;
-    private final UserRepository userRepository;
+    private final EventImportService eventImportService;
+    private final EventExportService eventExportService;
+    private final AttendanceStream attendanceStream;
+    // Tipos en los que se puede escribir un EventDTOResponse, en el orden de los convertidores registrados
+    private final List<MediaType> eventMediaTypes;
 
-    public EventController(EventService eventService, UserRepository userRepository) {
+    public EventController(EventService eventService, EventImportService eventImportService,
+                           EventExportService eventExportService, AttendanceStream attendanceStream,
+                           HttpMessageConverters converters) {
         this.eventService = eventService;
-        this.userRepository = userRepository;
+        this.eventImportService = eventImportService;
+        this.eventExportService = eventExportService;
+        this.attendanceStream = attendanceStream;
+        this.eventMediaTypes = converters.getConverters().stream()
+            .filter(converter -> converter.canWrite(EventDTOResponse.class, null))
+            .flatMap(converter -> converter.getSupportedMediaTypes(EventDTOResponse.class).stream())
+            .toList();
     }
 
     @GetMapping
-    public ResponseEntity<List<EventDTOResponse>> getEvents(@RequestParam(required = false) EventFilter filter, Authentication authentication) {
-        UserEntity user = userRepository.findByUsername(authentication.getName())
-            .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
-        List<EventEntity> events = eventService.findAll(filter, user);
-        List<EventDTOResponse> response = events.stream().map(this::toDTOResponse).collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<EventPageDTOResponse> getEvents(@RequestParam(required = false) EventFilter filter,
+                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer size,
+                                                          @RequestParam(defaultValue = "true") boolean includeAttendees,
+                                                          @CurrentUser(required = false) AuthenticatedUser user,
+                                                          ServletWebRequest request) {
+        Long userId = listingUserId(filter, user);
+        MediaType format = negotiatedFormat(request);
+        if (format != null && listingNotModified(request, filter, userId, representation(format))) {
+            return null;
+        }
+        return ResponseEntity.ok(eventService.findPage(filter, userId, EventRange.of(from, to), cursor, size, includeAttendees));
+    }
+
+    // Mismo listado en formato compacto (Accept: application/vnd.gijoneventos.compact+json), ver CompactEventPageConverter
+    @GetMapping(produces = CompactEventPageConverter.MEDIA_TYPE_VALUE)
+    public ResponseEntity<CompactEventPage> getEventsCompact(@RequestParam(required = false) EventFilter filter,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer size,
+                                                             @RequestParam(defaultValue = "true") boolean includeAttendees,
+                                                             @CurrentUser(required = false) AuthenticatedUser user,
+                                                             ServletWebRequest request) {
+        Long userId = listingUserId(filter, user);
+        if (listingNotModified(request, filter, userId, "compact")) {
+            return null;
+        }
+        return ResponseEntity.ok(eventService.findCompactPage(filter, userId, EventRange.of(from, to), cursor, size, includeAttendees));
+    }
+
+    private static Long listingUserId(EventFilter filter, AuthenticatedUser user) {
+        boolean perUser = filter == EventFilter.ATTENDING || filter == EventFilter.ORGANIZED;
+        if (user == null && perUser) {
+            throw new IllegalArgumentException("El filtro " + filter + " requiere un usuario autenticado");
+        }
+        return user == null ? null : user.id();
+    }
+
+    private boolean listingNotModified(ServletWebRequest request, EventFilter filter, Long userId, String representation) {
+        boolean perUser = filter == EventFilter.ATTENDING || filter == EventFilter.ORGANIZED;
+        // UPCOMING depende de la hora actual, no solo de la BD: no se puede validar con la versión del catálogo
+        return filter != EventFilter.UPCOMING
+            && notModified(request, eventService.findCatalogVersion(), perUser ? userId : null, representation);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<EventDTOResponse> getEvent(@PathVariable Long id,
+                                                     @RequestParam(defaultValue = "true") boolean includeAttendees,
+                                                     ServletWebRequest request) {
+        MediaType format = negotiatedFormat(request);
+        if (format != null && notModified(request, eventService.findVersion(id), null, representation(format))) {
+            return null;
+        }
+        return ResponseEntity.ok(eventService.findDTOById(id, includeAttendees));
+    }
+
+    // Aforo en directo (Server-Sent Events): el aforo actual al conectar y después como mucho un mensaje por intervalo
+    @GetMapping(path = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAttendance(@PathVariable Long id) {
+        return attendanceStream.subscribe(id);
+    }
+
+    // Tipo que elegirá la negociación de contenido para un EventDTOResponse con los convertidores registrados;
+    // null si no vale ninguno (la respuesta será un 406). Hace falta antes de leer nada, para que cada formato
+    // de la misma URL tenga su propio ETag
+    private MediaType negotiatedFormat(ServletWebRequest request) {
+        List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(request.getHeader(HttpHeaders.ACCEPT)));
+        if (accepted.isEmpty()) {
+            accepted.add(MediaType.ALL);
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            for (MediaType producible : eventMediaTypes) {
+                if (producible.isConcrete() && type.isCompatibleWith(producible)) {
+                    return producible;
+                }
+            }
+        }
+        return null;
+    }
+
+    // null para JSON; el subtipo para el resto (cbor, x-jackson-smile)
+    private static String representation(MediaType format) {
+        return format.isCompatibleWith(MediaType.APPLICATION_JSON) ? null : format.getSubtype();
+    }
+
+    // Fija ETag y Last-Modified; si el cliente ya tiene esta versión la respuesta queda en 304 sin leer los eventos
+    // representation distingue el ETag de cada formato de la misma URL (Vary: Accept)
+    private static boolean notModified(ServletWebRequest request, EventVersion version, Long userId, String representation) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+        request.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return request.checkNotModified(version.etag(userId, representation), version.lastModifiedMillis());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<EventDTOResponse>> searchEvents(@RequestParam String q,
+                                                               @RequestParam(required = false) Integer size,
+                                                               @RequestParam(defaultValue = "true") boolean includeAttendees) {
+        return ResponseEntity.ok(eventService.search(q, size, includeAttendees));
+    }
+
+    // Eventos cercanos: por radio alrededor de lat/lon o dentro de una caja bbox=minLon,minLat,maxLon,maxLat
+    @GetMapping("/near")
+    public ResponseEntity<List<NearbyEventDTOResponse>> nearEvents(@RequestParam(required = false) Double lat,
+                                                                   @RequestParam(required = false) Double lon,
+                                                                   @RequestParam(required = false) Double radiusKm,
+                                                                   @RequestParam(required = false) List<Double> bbox,
+                                                                   @RequestParam(required = false) Integer size,
+                                                                   @RequestParam(defaultValue = "true") boolean includeAttendees) {
+        if (bbox != null) {
+            if (bbox.size() != 4 || bbox.contains(null)) {
+                throw new IllegalArgumentException("bbox debe tener cuatro valores: minLon,minLat,maxLon,maxLat");
+            }
+            return ResponseEntity.ok(eventService.findWithin(bbox.get(1), bbox.get(0), bbox.get(3), bbox.get(2), size, includeAttendees));
+        }
+        if (lat == null || lon == null) {
+            throw new IllegalArgumentException("Indica lat y lon, o bien bbox");
+        }
+        return ResponseEntity.ok(eventService.findNear(lat, lon, radiusKm, size, includeAttendees));
+    }
+
+    // Exportación completa (solo administradores), escrita fila a fila mientras se lee la BD
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEvents(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                                              @RequestParam(defaultValue = "EVENTS") ExportDataset dataset) {
+        String filename = dataset.name().toLowerCase() + "." + format.extension();
+        return ResponseEntity.ok()
+            .contentType(format.mediaType())
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+            .body(out -> eventExportService.export(dataset, format, out));
     }
 
     @PostMapping
-    public ResponseEntity<EventDTOResponse> createEvent(@Valid @RequestBody EventDTORequest dto, Authentication authentication) {
-        UserEntity organizer = userRepository.findByUsername(authentication.getName())
-            .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
-        EventEntity event = eventService.createFromDTO(dto, organizer);
-        return ResponseEntity.ok(toDTOResponse(event));
+    public ResponseEntity<EventDTOResponse> createEvent(@Valid @RequestBody EventDTORequest dto, @CurrentUser AuthenticatedUser user) {
+        EventEntity event = eventService.createFromDTO(dto, user.id());
+        return ResponseEntity.ok(eventService.findDTOById(event.getId()));
+    }
+
+    // Importación masiva (solo administradores): el cuerpo se procesa en streaming, no se enlaza con @RequestBody.
+    // Los eventos quedan a nombre de organizerId o, si no se indica, del administrador que importa.
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<EventImportDTOResponse> importJson(InputStream body,
+                                                             @RequestParam(required = false) Long organizerId,
+                                                             @CurrentUser AuthenticatedUser user) throws IOException {
+        return ResponseEntity.ok(eventImportService.importJson(body, organizerId != null ? organizerId : user.id()));
+    }
+
+    @PostMapping(path = "/import", consumes = "text/csv")
+    public ResponseEntity<EventImportDTOResponse> importCsv(InputStream body,
+                                                            @RequestParam(required = false) Long organizerId,
+                                                            @CurrentUser AuthenticatedUser user) throws IOException {
+        return ResponseEntity.ok(eventImportService.importCsv(body, organizerId != null ? organizerId : user.id()));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<EventDTOResponse> updateEvent(@PathVariable Long id, @Valid @RequestBody EventDTORequest dto, Authentication authentication) {
-        UserEntity user = userRepository.findByUsername(authentication.getName())
-            .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
-        EventEntity event = eventService.findById(id); // findById lanza excepción si no encuentra
-        boolean isAdmin = authentication.getAuthorities().stream()
-            .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
-        if (!event.getOrganizer().getId().equals(user.getId()) && !isAdmin) {
+    public ResponseEntity<EventDTOResponse> updateEvent(@PathVariable Long id, @Valid @RequestBody EventDTORequest dto, @CurrentUser AuthenticatedUser user) {
+        Long organizerId = eventService.findOrganizerId(id); // lanza excepción si no encuentra
+        if (!organizerId.equals(user.id()) && !user.isAdmin()) {
             throw new IllegalStateException("Solo el organizador o un administrador puede editar el evento");
         }
-        EventEntity updated = eventService.updateEvent(id, dto);
-        return ResponseEntity.ok(toDTOResponse(updated));
+        eventService.updateEvent(id, dto);
+        return ResponseEntity.ok(eventService.findDTOById(id));
     }
 
     @PostMapping("/{id}/join")
-    public ResponseEntity<Void> joinEvent(@PathVariable Long id, Authentication authentication) {
-        UserEntity user = userRepository.findByUsername(authentication.getName())
-            .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
-        eventService.joinEvent(id, user.getId());
+    public ResponseEntity<Void> joinEvent(@PathVariable Long id, @CurrentUser AuthenticatedUser user) {
+        eventService.joinEvent(id, user.id());
         return ResponseEntity.ok().build();
     }
 
     @PostMapping("/{id}/leave")
-    public ResponseEntity<Void> leaveEvent(@PathVariable Long id, Authentication authentication) {
-        UserEntity user = userRepository.findByUsername(authentication.getName())
-            .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
-        eventService.leaveEvent(id, user.getId());
+    public ResponseEntity<Void> leaveEvent(@PathVariable Long id, @CurrentUser AuthenticatedUser user) {
+        eventService.leaveEvent(id, user.id());
+        return ResponseEntity.ok().build();
+    }
+
+    // Solo administradores (ver SecurityConfiguration)
+    @PutMapping("/{id}/ticket-drop")
+    public ResponseEntity<Void> setTicketDrop(@PathVariable Long id, @RequestParam boolean enabled) {
+        eventService.setTicketDrop(id, enabled);
         return ResponseEntity.ok().build();
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteEvent(@PathVariable Long id, Authentication authentication) {
-        UserEntity user = userRepository.findByUsername(authentication.getName())
-            .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado"));
-        EventEntity event = eventService.findById(id); // findById lanza excepción si no encuentra
-        boolean isAdmin = authentication.getAuthorities().stream()
-            .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
-        if (!event.getOrganizer().getId().equals(user.getId()) && !isAdmin) {
+    public ResponseEntity<Void> deleteEvent(@PathVariable Long id, @CurrentUser AuthenticatedUser user) {
+        Long organizerId = eventService.findOrganizerId(id); // lanza excepción si no encuentra
+        if (!organizerId.equals(user.id()) && !user.isAdmin()) {
             throw new IllegalStateException("Solo el organizador o un administrador puede eliminar el evento");
         }
         eventService.deleteEvent(id);
         return ResponseEntity.ok().build();
     }
-
-    private EventDTOResponse toDTOResponse(EventEntity event) {
-        return EventDTOResponse.builder()
-            .id(event.getId())
-            .title(event.getTitle())
-            .description(event.getDescription())
-            .date(event.getDate().toString())
-            .location(event.getLocation())
-            .organizer(new UserDTOResponse(
-                event.getOrganizer().getId(),
-                event.getOrganizer().getFullName(),
-                event.getOrganizer().getUsername(),
-                event.getOrganizer().getEmail(),
-                event.getOrganizer().getPhone(),
-                "" // Valor por defecto para role
-            ))
-            .attendees(event.getAttendees().stream().map(UserEntity::getId).collect(Collectors.toSet()))
-            .maxAttendees(event.getMaxAttendees())
-            .build();
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package dev.saul.gijoneventos.event;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de paginación por keyset sobre (date, id_event).
+ * Se serializa como un token opaco para que el cliente no dependa de su formato.
+ */
+public record EventCursor(LocalDateTime date, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static EventCursor of(EventSummary event) {
+        return new EventCursor(event.date(), event.id());
+    }
+
+    public String encode() {
+        String raw = date + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EventCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new EventCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido");
+        }
+    }
+}
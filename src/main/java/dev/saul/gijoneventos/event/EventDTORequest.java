@@ -1,5 +1,7 @@
 package dev.saul.gijoneventos.event;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.validation.constraints.*;
 import lombok.*;
 
@@ -24,4 +26,19 @@ public class EventDTORequest {
 
     @Positive(message = "El número de asistentes debe ser mayor a 0")
     private int maxAttendees;
+
+    // Opcionales: sin coordenadas el evento no aparece en GET /events/near
+    @DecimalMin(value = "-90.0", message = "La latitud debe estar entre -90 y 90")
+    @DecimalMax(value = "90.0", message = "La latitud debe estar entre -90 y 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "La longitud debe estar entre -180 y 180")
+    @DecimalMax(value = "180.0", message = "La longitud debe estar entre -180 y 180")
+    private Double longitude;
+
+    @JsonIgnore
+    @AssertTrue(message = "La latitud y la longitud deben indicarse juntas")
+    public boolean isCoordinatesPaired() {
+        return (latitude == null) == (longitude == null);
+    }
 }
\ No newline at end of file
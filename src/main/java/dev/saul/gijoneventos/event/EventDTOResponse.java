@@ -1,5 +1,7 @@
 package dev.saul.gijoneventos.event;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import dev.saul.gijoneventos.user.UserDTOResponse;
 import lombok.*;
 
@@ -18,6 +20,12 @@ public class EventDTOResponse {
     private String date;  // Convertir LocalDateTime a string en el servicio (e.g., ISO format)
     private String location;
     private UserDTOResponse organizer;
-    private Set<Long> attendees;  // IDs de usuarios para matching con frontend (string[])
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Set<Long> attendees;  // IDs de usuarios para matching con frontend (string[]); se omite con includeAttendees=false
+    private int attendeeCount;
     private int maxAttendees;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double latitude;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double longitude;
 }
\ No newline at end of file
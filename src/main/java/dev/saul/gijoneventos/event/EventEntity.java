@@ -3,13 +3,22 @@ package dev.saul.gijoneventos.event;
 import dev.saul.gijoneventos.user.UserEntity;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+    // Soportan la paginación por keyset ordenada por (date, id_event)
+    @Index(name = "idx_events_date_id", columnList = "date, id_event"),
+    @Index(name = "idx_events_organizer_date_id", columnList = "organizer_id, date, id_event")
+})
+// Sin caché de segundo nivel: cada join/leave es un UPDATE masivo (reserveSeat, releaseSeat) y
+// Hibernate vacía por ello la región entera, así que ningún evento llegaba a seguir en caché. Las
+// lecturas calientes (listados, detalle, búsqueda) van por proyecciones e índices en memoria, no por
+// la entidad; solo la cargan la edición y el borrado.
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -30,6 +39,11 @@ public class EventEntity {
 
     private String location;
 
+    // Coordenadas opcionales (grados WGS84) para la búsqueda por cercanía; las dos o ninguna
+    private Double latitude;
+
+    private Double longitude;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "organizer_id")
     private UserEntity organizer;
@@ -38,10 +52,34 @@ public class EventEntity {
     @JoinTable(
         name = "event_attendees",
         joinColumns = @JoinColumn(name = "event_id"),
-        inverseJoinColumns = @JoinColumn(name = "user_id")
+        inverseJoinColumns = @JoinColumn(name = "user_id"),
+        indexes = @Index(name = "idx_event_attendees_user", columnList = "user_id, event_id")
     )
     @Builder.Default
     private Set<UserEntity> attendees = new HashSet<>();
 
     private int maxAttendees;
+
+    // Contador persistido de asistentes. Solo lo modifican las sentencias condicionales de
+    // EventRepository (updatable = false): un save() de la entidad nunca pisa un valor concurrente.
+    @Column(name = "attendee_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int attendeeCount = 0;
+
+    // Modo "ticket drop": la admisión la decide ReservationLedger en memoria
+    @Column(name = "ticket_drop", nullable = false)
+    @ColumnDefault("false")
+    private boolean ticketDrop;
+
+    // Versión y fecha de la última modificación visible (datos o asistentes): alimentan ETag y Last-Modified.
+    // Igual que attendeeCount, solo las cambian las sentencias de EventRepository; el valor inicial lo pone la BD.
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private long version = 0;
+
+    @Column(name = "last_modified", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("CURRENT_TIMESTAMP(6)")
+    private LocalDateTime lastModified;
 }
\ No newline at end of file
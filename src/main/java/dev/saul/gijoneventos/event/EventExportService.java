@@ -0,0 +1,108 @@
+package dev.saul.gijoneventos.event;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Exportación completa de eventos o de asistencia en NDJSON o CSV.
+ *
+ * La consulta se recorre hacia delante con un cursor (getResultStream + fetch size) dentro de una
+ * transacción de solo lectura y cada fila se escribe en cuanto llega: no se construye ninguna lista.
+ * Cada events.export.chunk-size filas se vacía el contexto de persistencia y se hace flush de la salida,
+ * así que la memoria usada no depende del tamaño de la tabla y el cliente recibe datos desde el principio.
+ */
+@Service
+public class EventExportService {
+
+    private static final String ATTENDANCE = """
+        SELECT new dev.saul.gijoneventos.event.AttendanceRow(e.id, a.id, a.username)
+        FROM EventEntity e JOIN e.attendees a
+        ORDER BY e.id, a.id""";
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+
+    @Value("${events.export.fetch-size:1000}")
+    int fetchSize = 1000;
+
+    @Value("${events.export.chunk-size:1000}")
+    int chunkSize = 1000;
+
+    public EventExportService(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            // Columnas en el orden de declaración del record, no alfabético
+            .disable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    }
+
+    public void export(ExportDataset dataset, ExportFormat format, OutputStream out) {
+        switch (dataset) {
+            case EVENTS -> export(EventRepository.SUMMARY + " ORDER BY e.id", EventSummary.class, format, out);
+            case ATTENDANCE -> export(ATTENDANCE, AttendanceRow.class, format, out);
+        }
+    }
+
+    private <T> void export(String jpql, Class<T> type, ExportFormat format, OutputStream out) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<T> rows = entityManager.createQuery(jpql, type)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .getResultStream();
+                 SequenceWriter writer = writer(type, format).writeValues(out)) {
+                long count = 0;
+                Iterator<T> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    writer.write(iterator.next());
+                    if (++count % chunkSize == 0) {
+                        entityManager.clear();
+                        writer.flush();
+                    }
+                }
+                writer.flush();
+                if (format == ExportFormat.NDJSON && count > 0) {
+                    out.write('\n');
+                }
+            } catch (IOException e) {
+                // Normalmente el cliente ha cerrado la conexión: se aborta y se libera el cursor
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private ObjectWriter writer(Class<?> type, ExportFormat format) {
+        ObjectWriter writer = switch (format) {
+            case NDJSON -> objectMapper.writerFor(type).withRootValueSeparator("\n");
+            case CSV -> csvMapper.writerFor(type).with(csvMapper.schemaFor(type).withHeader());
+        };
+        // El flush lo decide export() por bloques, no Jackson en cada fila
+        return writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+}
@@ -3,7 +3,8 @@ package dev.saul.gijoneventos.event;
 public enum EventFilter {
     ALL("Todos"),
     ATTENDING("Mis Asistencias"),
-    ORGANIZED("Organizados");
+    ORGANIZED("Organizados"),
+    UPCOMING("Próximos");
 
     private final String value;
 
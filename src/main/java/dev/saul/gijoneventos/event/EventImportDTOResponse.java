@@ -0,0 +1,13 @@
+package dev.saul.gijoneventos.event;
+
+import java.util.List;
+
+public record EventImportDTOResponse(
+        int imported,
+        int failed,
+        List<RowError> errors   // como mucho events.import.max-reported-errors entradas
+) {
+
+    // row: posición en el array JSON o nº de línea de datos del CSV (ambos desde 1)
+    public record RowError(long row, String message) {}
+}
@@ -0,0 +1,216 @@
+package dev.saul.gijoneventos.event;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import dev.saul.gijoneventos.user.UserCache;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Importación masiva de eventos (array JSON o CSV con cabecera).
+ *
+ * El cuerpo se lee fila a fila con un MappingIterator de Jackson, así que nunca está entero en memoria.
+ * Cada fila se lee primero como árbol y después se convierte a EventDTORequest: un tipo incorrecto
+ * invalida solo esa fila, mientras que un error de sintaxis detiene la importación.
+ * Cada fila se valida con las mismas reglas que EventDTORequest en POST /events y las válidas se insertan
+ * con JDBC por lotes de events.import.batch-size, cada lote en su propia transacción. Igual que
+ * createFromDTO, el organizador queda apuntado como asistente de cada evento.
+ */
+@Service
+public class EventImportService {
+
+    private static final String INSERT_EVENT = """
+        INSERT INTO events (title, description, date, location, organizer_id, max_attendees, latitude, longitude,
+                            attendee_count, ticket_drop)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, 1, FALSE)""";
+
+    private static final String INSERT_ATTENDEE = "INSERT INTO event_attendees (event_id, user_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final UserCache userCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader jsonReader;
+    private final ObjectReader csvReader;
+
+    @Value("${events.import.batch-size:1000}")
+    int batchSize = 1000;
+
+    @Value("${events.import.max-reported-errors:1000}")
+    int maxReportedErrors = 1000;
+
+    public EventImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              Validator validator, UserCache userCache, ObjectMapper objectMapper,
+                              ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.userCache = userCache;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.jsonReader = objectMapper.readerFor(JsonNode.class);
+        this.csvReader = new CsvMapper().readerFor(JsonNode.class).with(CsvSchema.emptySchema().withHeader());
+    }
+
+    public EventImportDTOResponse importJson(InputStream body, Long organizerId) throws IOException {
+        return importRows(jsonReader.readValues(body), organizerId);
+    }
+
+    public EventImportDTOResponse importCsv(InputStream body, Long organizerId) throws IOException {
+        return importRows(csvReader.readValues(body), organizerId);
+    }
+
+    private EventImportDTOResponse importRows(MappingIterator<JsonNode> rows, Long organizerId) throws IOException {
+        userCache.findById(organizerId)
+            .orElseThrow(() -> new EntityNotFoundException("Usuario no encontrado con ID: " + organizerId));
+        Result result = new Result();
+        List<Row> batch = new ArrayList<>(batchSize);
+        long rowNumber = 0;
+        try (rows) {
+            while (rows.hasNextValue()) {
+                JsonNode node = rows.nextValue();
+                rowNumber++;
+                EventDTORequest dto;
+                try {
+                    dto = objectMapper.treeToValue(node, EventDTORequest.class);
+                } catch (JsonProcessingException e) {
+                    // Fila mal formada (tipo incorrecto, columna desconocida...): se anota y se sigue
+                    result.error(rowNumber, "Formato inválido: " + e.getOriginalMessage());
+                    continue;
+                }
+                String error = validate(dto);
+                if (error != null) {
+                    result.error(rowNumber, error);
+                    continue;
+                }
+                batch.add(new Row(rowNumber, dto, LocalDateTime.parse(dto.getDate())));
+                if (batch.size() >= batchSize) {
+                    insert(batch, organizerId, result);
+                    batch.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // El parser no puede resincronizarse: se conserva lo importado hasta aquí
+            result.error(rowNumber + 1, "Formato inválido, importación detenida: " + e.getOriginalMessage());
+        }
+        if (!batch.isEmpty()) {
+            insert(batch, organizerId, result);
+        }
+        return new EventImportDTOResponse(result.imported, result.failed, result.errors);
+    }
+
+    private String validate(EventDTORequest dto) {
+        Set<ConstraintViolation<EventDTORequest>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining("; "));
+        }
+        try {
+            LocalDateTime.parse(dto.getDate());
+        } catch (DateTimeParseException e) {
+            return "Fecha inválida: " + dto.getDate();
+        }
+        return null;
+    }
+
+    private void insert(List<Row> batch, Long organizerId, Result result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertBatch(batch, organizerId));
+            result.imported += batch.size();
+        } catch (DataAccessException e) {
+            // Un lote rechazado por la BD se reintenta fila a fila para señalar solo las filas culpables
+            if (batch.size() == 1) {
+                result.error(batch.get(0).number(), "Rechazado por la base de datos: " + e.getMostSpecificCause().getMessage());
+                return;
+            }
+            for (Row row : batch) {
+                insert(List.of(row), organizerId, result);
+            }
+        }
+    }
+
+    private void insertBatch(List<Row> batch, Long organizerId) {
+        // IDENTITY impide el batching de Hibernate: se usa JDBC directo y se leen las claves generadas del lote
+        List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_EVENT, new String[] { "id_event" })) {
+                for (Row row : batch) {
+                    EventDTORequest dto = row.dto();
+                    statement.setString(1, dto.getTitle());
+                    statement.setString(2, dto.getDescription());
+                    statement.setTimestamp(3, Timestamp.valueOf(row.date()));
+                    statement.setString(4, dto.getLocation());
+                    statement.setLong(5, organizerId);
+                    statement.setInt(6, dto.getMaxAttendees());
+                    statement.setObject(7, dto.getLatitude(), Types.DOUBLE);
+                    statement.setObject(8, dto.getLongitude(), Types.DOUBLE);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                List<Long> generated = new ArrayList<>(batch.size());
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        generated.add(keys.getLong(1));
+                    }
+                }
+                return generated;
+            }
+        });
+        List<Object[]> attendees = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            attendees.add(new Object[] { id, organizerId });
+        }
+        jdbcTemplate.batchUpdate(INSERT_ATTENDEE, attendees);
+        // Un único aviso por lote: los índices en memoria se actualizan tras el commit
+        eventPublisher.publishEvent(EventChangedEvent.created(ids));
+    }
+
+    private record Row(long number, EventDTORequest dto, LocalDateTime date) {}
+
+    private final class Result {
+
+        private int imported;
+        private int failed;
+        private final List<EventImportDTOResponse.RowError> errors = new ArrayList<>();
+
+        private void error(long row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new EventImportDTOResponse.RowError(row, message));
+            }
+        }
+    }
+}
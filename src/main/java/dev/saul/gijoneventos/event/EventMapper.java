@@ -0,0 +1,32 @@
+package dev.saul.gijoneventos.event;
+
+import java.util.Set;
+
+import dev.saul.gijoneventos.user.UserDTOResponse;
+
+public class EventMapper {
+
+    // attendeeIds puede ser null cuando el cliente solo pide el número de asistentes
+    public static EventDTOResponse toDTOResponse(EventSummary event, Set<Long> attendeeIds) {
+        return EventDTOResponse.builder()
+            .id(event.id())
+            .title(event.title())
+            .description(event.description())
+            .date(event.date().toString())
+            .location(event.location())
+            .organizer(new UserDTOResponse(
+                event.organizerId(),
+                event.organizerFullName(),
+                event.organizerUsername(),
+                event.organizerEmail(),
+                event.organizerPhone(),
+                "" // Valor por defecto para role
+            ))
+            .attendees(attendeeIds)
+            .attendeeCount(event.attendeeCount())
+            .maxAttendees(event.maxAttendees())
+            .latitude(event.latitude())
+            .longitude(event.longitude())
+            .build();
+    }
+}
@@ -0,0 +1,11 @@
+package dev.saul.gijoneventos.event;
+
+import java.util.List;
+
+import lombok.Builder;
+
+@Builder
+public record EventPageDTOResponse(
+        List<EventDTOResponse> items,
+        String nextCursor   // null cuando no quedan más páginas
+) {}
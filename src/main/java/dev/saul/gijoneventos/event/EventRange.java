@@ -0,0 +1,29 @@
+package dev.saul.gijoneventos.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Intervalo [from, to) sobre EventEntity.date para GET /events.
+ * Sin límites explícitos se usan fechas que abarcan cualquier evento, de modo que las consultas
+ * siempre son un range scan de idx_events_date_id (o del índice del organizador).
+ */
+public record EventRange(LocalDateTime from, LocalDateTime to) {
+
+    public static final LocalDateTime MIN = LocalDateTime.of(1000, 1, 1, 0, 0);
+    public static final LocalDateTime MAX = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    public static final EventRange ALL = new EventRange(MIN, MAX);
+
+    public static EventRange of(LocalDateTime from, LocalDateTime to) {
+        EventRange range = new EventRange(from == null ? MIN : from, to == null ? MAX : to);
+        if (!range.from().isBefore(range.to())) {
+            throw new IllegalArgumentException("La fecha 'from' debe ser anterior a 'to'");
+        }
+        return range;
+    }
+
+    // El mismo intervalo sin nada anterior a 'now' (filtro UPCOMING)
+    public EventRange notBefore(LocalDateTime now) {
+        return from.isBefore(now) ? new EventRange(now, to) : this;
+    }
+}
@@ -1,12 +1,155 @@
 package dev.saul.gijoneventos.event;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-import dev.saul.gijoneventos.user.UserEntity;
+import jakarta.persistence.QueryHint;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface EventRepository extends JpaRepository<EventEntity, Long> {
-    List<EventEntity> findByAttendeesContaining(UserEntity user);
-    List<EventEntity> findByOrganizer(UserEntity organizer);
-}
\ No newline at end of file
+
+    // Proyección común del modelo de lectura: sin hidratar EventEntity/UserEntity (ni sus roles EAGER).
+    // El nº de asistentes sale del contador persistido, sin COUNT(*) sobre event_attendees.
+    String SUMMARY = """
+        SELECT new dev.saul.gijoneventos.event.EventSummary(
+            e.id, e.title, e.description, e.date, e.location, e.maxAttendees,
+            o.id, o.fullName, o.username, o.email, o.phone, e.attendeeCount, e.latitude, e.longitude)
+        FROM EventEntity e JOIN e.organizer o
+        """;
+
+    String AFTER_CURSOR = "(e.date > :date OR (e.date = :date AND e.id > :id))";
+
+    String IN_RANGE = "e.date >= :from AND e.date < :to";
+
+    String KEYSET_ORDER = " ORDER BY e.date, e.id";
+
+    // Reserva de plaza atómica: la fila del evento queda bloqueada hasta el commit y la condición
+    // se evalúa sobre el valor vigente, así que dos joins concurrentes no pueden sobrepasar el aforo.
+    // Devuelve 0 si el evento no existe o está completo.
+    // Las sentencias que cambian lo que devuelve GET /events/{id} suben también version y last_modified.
+    @Modifying
+    @Query("""
+        UPDATE EventEntity e SET e.attendeeCount = e.attendeeCount + 1, e.version = e.version + 1, e.lastModified = LOCAL DATETIME
+        WHERE e.id = :id AND e.attendeeCount < e.maxAttendees""")
+    int reserveSeat(Long id);
+
+    @Modifying
+    @Query("""
+        UPDATE EventEntity e SET e.attendeeCount = e.attendeeCount - 1, e.version = e.version + 1, e.lastModified = LOCAL DATETIME
+        WHERE e.id = :id AND e.attendeeCount > 0""")
+    int releaseSeat(Long id);
+
+    // Tras editar los datos del evento
+    @Modifying
+    @Query("UPDATE EventEntity e SET e.version = e.version + 1, e.lastModified = LOCAL DATETIME WHERE e.id = :id")
+    int touch(Long id);
+
+    // Inserción directa en la tabla de unión, sin cargar la colección de asistentes.
+    // Devuelve 0 si el usuario ya estaba apuntado (la PK (event_id, user_id) cubre las carreras).
+    // NATIVE_SPACES: Hibernate solo invalida en la caché de segundo nivel lo que depende de
+    // event_attendees; sin él, cada SQL nativo vacía todas las regiones (usuarios, roles...).
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "event_attendees"))
+    @Query(value = """
+        INSERT INTO event_attendees (event_id, user_id)
+        SELECT e.id_event, :userId FROM events e
+        WHERE e.id_event = :id
+          AND NOT EXISTS (SELECT 1 FROM event_attendees a WHERE a.event_id = :id AND a.user_id = :userId)""",
+        nativeQuery = true)
+    int insertAttendee(Long id, Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "event_attendees"))
+    @Query(value = "DELETE FROM event_attendees WHERE event_id = :id AND user_id = :userId", nativeQuery = true)
+    int deleteAttendee(Long id, Long userId);
+
+    @Modifying
+    @Query("UPDATE EventEntity e SET e.ticketDrop = :enabled WHERE e.id = :id")
+    int updateTicketDrop(Long id, boolean enabled);
+
+    // Recalcula los contadores a partir de event_attendees (datos previos al contador);
+    // solo toca, y cambia de versión, los eventos cuyo contador no cuadra
+    @Modifying
+    @Query(value = """
+        UPDATE events SET
+            attendee_count = (SELECT COUNT(*) FROM event_attendees a WHERE a.event_id = events.id_event),
+            version = version + 1, last_modified = LOCALTIMESTAMP
+        WHERE attendee_count <> (SELECT COUNT(*) FROM event_attendees a WHERE a.event_id = events.id_event)""",
+        nativeQuery = true)
+    int reconcileAttendeeCounts();
+
+    // Aforo de los eventos con cambios para AttendanceStream, en una sola consulta
+    @Query("SELECT new dev.saul.gijoneventos.event.Attendance(e.id, e.attendeeCount, e.maxAttendees) FROM EventEntity e WHERE e.id IN :ids")
+    List<Attendance> findAttendanceByIds(Collection<Long> ids);
+
+    // Validadores de las peticiones condicionales: no cargan el evento
+    @Query("SELECT new dev.saul.gijoneventos.event.EventVersion(1L, e.version, e.lastModified) FROM EventEntity e WHERE e.id = :id")
+    Optional<EventVersion> findVersionById(Long id);
+
+    @Query("SELECT e.organizer.id FROM EventEntity e WHERE e.id = :id")
+    Optional<Long> findOrganizerIdById(Long id);
+
+    @Query(SUMMARY + "WHERE e.id = :id")
+    Optional<EventSummary> findSummaryById(Long id);
+
+    @Query(SUMMARY + "WHERE e.id IN :ids")
+    List<EventSummary> findSummariesByIds(Collection<Long> ids);
+
+    // Recorrido completo por bloques de id para reconstruir los índices en memoria
+    @Query(SUMMARY + "WHERE e.id > :afterId ORDER BY e.id")
+    List<EventSummary> findSummariesAfterId(Long afterId, Limit limit);
+
+    @Query("""
+        SELECT new dev.saul.gijoneventos.event.AttendeeRef(e.id, a.id)
+        FROM EventEntity e JOIN e.attendees a
+        WHERE e.id IN :eventIds""")
+    List<AttendeeRef> findAttendeeRefs(Collection<Long> eventIds);
+
+    // Paginación por keyset sobre (date, id_event) dentro de [from, to): cada página es un range scan
+    // del índice, su coste no depende de cuántas páginas se hayan leído antes.
+
+    @Query(SUMMARY + "WHERE " + IN_RANGE + KEYSET_ORDER)
+    List<EventSummary> findFirstPage(LocalDateTime from, LocalDateTime to, Limit limit);
+
+    @Query(SUMMARY + "WHERE " + IN_RANGE + " AND " + AFTER_CURSOR + KEYSET_ORDER)
+    List<EventSummary> findPageAfter(LocalDateTime from, LocalDateTime to, LocalDateTime date, Long id, Limit limit);
+
+    @Query(SUMMARY + "JOIN e.attendees a WHERE a.id = :userId AND " + IN_RANGE + KEYSET_ORDER)
+    List<EventSummary> findFirstPageByAttendee(Long userId, LocalDateTime from, LocalDateTime to, Limit limit);
+
+    @Query(SUMMARY + "JOIN e.attendees a WHERE a.id = :userId AND " + IN_RANGE + " AND " + AFTER_CURSOR + KEYSET_ORDER)
+    List<EventSummary> findPageByAttendeeAfter(Long userId, LocalDateTime from, LocalDateTime to,
+                                               LocalDateTime date, Long id, Limit limit);
+
+    @Query(SUMMARY + "WHERE o.id = :userId AND " + IN_RANGE + KEYSET_ORDER)
+    List<EventSummary> findFirstPageByOrganizer(Long userId, LocalDateTime from, LocalDateTime to, Limit limit);
+
+    @Query(SUMMARY + "WHERE o.id = :userId AND " + IN_RANGE + " AND " + AFTER_CURSOR + KEYSET_ORDER)
+    List<EventSummary> findPageByOrganizerAfter(Long userId, LocalDateTime from, LocalDateTime to,
+                                                LocalDateTime date, Long id, Limit limit);
+
+    // Claves (date, id) para UpcomingEventsIndex
+    @Query("SELECT new dev.saul.gijoneventos.event.EventCursor(e.date, e.id) FROM EventEntity e WHERE e.date >= :from")
+    List<EventCursor> findKeysFrom(LocalDateTime from);
+
+    @Query("SELECT new dev.saul.gijoneventos.event.EventCursor(e.date, e.id) FROM EventEntity e WHERE e.id IN :ids")
+    List<EventCursor> findKeysByIds(Collection<Long> ids);
+
+    // Coordenadas para GeoGridIndex: el arranque solo lee los eventos geolocalizados, por bloques de id
+    @Query("""
+        SELECT new dev.saul.gijoneventos.event.GeoPoint(e.id, e.latitude, e.longitude) FROM EventEntity e
+        WHERE e.id > :afterId AND e.latitude IS NOT NULL AND e.longitude IS NOT NULL ORDER BY e.id""")
+    List<GeoPoint> findGeoPointsAfterId(Long afterId, Limit limit);
+
+    // Incluye los eventos sin coordenadas: así una edición que las quita los saca del índice
+    @Query("SELECT new dev.saul.gijoneventos.event.GeoPoint(e.id, e.latitude, e.longitude) FROM EventEntity e WHERE e.id IN :ids")
+    List<GeoPoint> findGeoPointsByIds(Collection<Long> ids);
+}
@@ -0,0 +1,330 @@
+package dev.saul.gijoneventos.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Índice invertido en memoria sobre título, descripción y ubicación de los eventos.
+ *
+ * Cada evento ocupa un "slot" entero y cada término guarda sus slots y pesos en arrays primitivos,
+ * así que una búsqueda recorre arrays y acumula en un float[] sin crear objetos por evento.
+ * Los términos (ver SearchTokenizer) están en un mapa ordenado: la búsqueda por prefijo es un subMap.
+ * El peso de un término depende del campo (título > ubicación > descripción) y de su frecuencia, y al
+ * buscar se multiplica por su idf. Todos los términos de la consulta deben aparecer (AND).
+ *
+ * Al modificar o borrar un evento su slot anterior se marca como muerto; cuando hay demasiados muertos
+ * se compacta. Se reconstruye en paralelo al arrancar y se mantiene al día con EventChangedEvent.
+ * Los cambios que llegan durante una reconstrucción van al segmento vigente y se repiten, en orden,
+ * sobre el nuevo justo antes de sustituirlo: Tomcat ya atiende peticiones cuando llega ApplicationReadyEvent.
+ */
+@Component
+public class EventSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EventSearchIndex.class);
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float LOCATION_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    // Una coincidencia por prefijo puntúa algo menos que la palabra exacta
+    private static final float PREFIX_FACTOR = 0.7f;
+    private static final int REBUILD_CHUNK = 5000;
+    // Tokens de la consulta que se tienen en cuenta (el contador de coincidencias es un byte)
+    private static final int MAX_QUERY_TOKENS = 16;
+
+    private final EventRepository eventRepository;
+    // Muchas búsquedas concurrentes, escrituras cortas y poco frecuentes
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment segment = new Segment();
+    // Solo durante una reconstrucción: cambios que el segmento nuevo aún no tiene (bajo el lock)
+    private List<Consumer<Segment>> missed;
+
+    public EventSearchIndex(EventRepository eventRepository) {
+        this.eventRepository = eventRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        Segment rebuilt = new Segment();
+        lock.writeLock().lock();
+        try {
+            missed = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Long afterId = 0L;
+        List<EventSummary> chunk;
+        do {
+            chunk = eventRepository.findSummariesAfterId(afterId, Limit.of(REBUILD_CHUNK));
+            // Tokenizar es la parte cara y va en paralelo; el volcado al segmento nuevo es secuencial
+            chunk.parallelStream()
+                .map(event -> Map.entry(event.id(), weights(event)))
+                .toList()
+                .forEach(entry -> rebuilt.add(entry.getKey(), entry.getValue()));
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).id();
+            }
+        } while (chunk.size() == REBUILD_CHUNK);
+        lock.writeLock().lock();
+        try {
+            // Un evento ya leído puede haber cambiado, o haberse creado tras el último bloque
+            missed.forEach(change -> change.accept(rebuilt));
+            missed = null;
+            segment = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de búsqueda reconstruido: {} eventos, {} términos en {} ms",
+            rebuilt.live, rebuilt.terms.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        if (change.type() == EventChangedEvent.ChangeType.DELETED) {
+            change.eventIds().forEach(this::remove);
+            return;
+        }
+        eventRepository.findSummariesByIds(change.eventIds()).forEach(this::index);
+    }
+
+    public void index(EventSummary event) {
+        Map<String, Float> weights = weights(event);
+        lock.writeLock().lock();
+        try {
+            apply(target -> {
+                target.remove(event.id());
+                target.add(event.id(), weights);
+            });
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long eventId) {
+        lock.writeLock().lock();
+        try {
+            apply(target -> target.remove(eventId));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids de los eventos que contienen todos los términos de la consulta, de más a menos relevante
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = new LinkedHashSet<>(SearchTokenizer.tokenize(query)).stream()
+            .limit(MAX_QUERY_TOKENS)
+            .toList();
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return segment.search(tokens, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Con el lock de escritura tomado
+    private void apply(Consumer<Segment> change) {
+        change.accept(segment);
+        if (missed != null) {
+            missed.add(change);
+        }
+    }
+
+    private void compactIfNeeded() {
+        Segment current = segment;
+        if (current.slots > 1024 && current.slots - current.live > current.slots / 4) {
+            segment = current.compact();
+        }
+    }
+
+    private static Map<String, Float> weights(EventSummary event) {
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, event.title(), TITLE_WEIGHT);
+        addField(weights, event.location(), LOCATION_WEIGHT);
+        addField(weights, event.description(), DESCRIPTION_WEIGHT);
+        return weights;
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float fieldWeight) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : SearchTokenizer.tokenize(text)) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        // Frecuencia amortiguada: repetir una palabra no multiplica su peso
+        frequencies.forEach((token, tf) ->
+            weights.merge(token, fieldWeight * (1f + (float) Math.log(tf)), Float::sum));
+    }
+
+    // Estado del índice; solo se toca bajo el lock de EventSearchIndex
+    private static final class Segment {
+
+        private final TreeMap<String, Postings> terms = new TreeMap<>();
+        private final Map<Long, Integer> slotById = new HashMap<>();
+        private long[] idBySlot = new long[1024];
+        private boolean[] alive = new boolean[1024];
+        private int slots;
+        private int live;
+
+        private void add(Long eventId, Map<String, Float> weights) {
+            if (slots == idBySlot.length) {
+                idBySlot = Arrays.copyOf(idBySlot, slots * 2);
+                alive = Arrays.copyOf(alive, slots * 2);
+            }
+            int slot = slots++;
+            idBySlot[slot] = eventId;
+            alive[slot] = true;
+            slotById.put(eventId, slot);
+            live++;
+            weights.forEach((term, weight) -> terms.computeIfAbsent(term, k -> new Postings()).add(slot, weight));
+        }
+
+        private void remove(Long eventId) {
+            Integer slot = slotById.remove(eventId);
+            if (slot != null) {
+                alive[slot] = false;
+                live--;
+            }
+        }
+
+        private Segment compact() {
+            Segment compacted = new Segment();
+            int[] remap = new int[slots];
+            for (int slot = 0; slot < slots; slot++) {
+                if (alive[slot]) {
+                    remap[slot] = compacted.slots;
+                    compacted.add(idBySlot[slot], Map.of());
+                }
+            }
+            terms.forEach((term, postings) -> {
+                Postings kept = new Postings();
+                for (int i = 0; i < postings.size; i++) {
+                    if (alive[postings.slots[i]]) {
+                        kept.add(remap[postings.slots[i]], postings.weights[i]);
+                    }
+                }
+                if (kept.size > 0) {
+                    compacted.terms.put(term, kept);
+                }
+            });
+            return compacted;
+        }
+
+        private List<Long> search(List<String> tokens, int limit) {
+            float[] total = new float[slots];
+            byte[] matched = new byte[slots];
+            float[] best = new float[slots];
+            int[] touched = new int[slots];
+            for (int round = 0; round < tokens.size(); round++) {
+                String token = tokens.get(round);
+                int count = 0;
+                // Todos los términos que empiezan por el token (incluido él mismo): se queda la mejor puntuación
+                for (Map.Entry<String, Postings> term : terms.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+                    Postings postings = term.getValue();
+                    float factor = (float) Math.log(1 + (double) live / postings.size)
+                        * (term.getKey().equals(token) ? 1f : PREFIX_FACTOR);
+                    for (int i = 0; i < postings.size; i++) {
+                        int slot = postings.slots[i];
+                        // Solo siguen en juego los que han coincidido con todos los tokens anteriores
+                        if (matched[slot] != round || !alive[slot]) {
+                            continue;
+                        }
+                        float score = postings.weights[i] * factor;
+                        if (best[slot] == 0f) {
+                            touched[count++] = slot;
+                        }
+                        if (score > best[slot]) {
+                            best[slot] = score;
+                        }
+                    }
+                }
+                if (count == 0) {
+                    return List.of();
+                }
+                for (int i = 0; i < count; i++) {
+                    int slot = touched[i];
+                    total[slot] += best[slot];
+                    matched[slot]++;
+                    best[slot] = 0f;
+                }
+                if (round == tokens.size() - 1) {
+                    return top(touched, count, total, limit);
+                }
+            }
+            return List.of();
+        }
+
+        // Los limit mejores por inserción ordenada; empate: id menor primero
+        private List<Long> top(int[] candidates, int count, float[] total, int limit) {
+            int[] best = new int[Math.min(limit, count)];
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                int slot = candidates[i];
+                if (size == best.length && !ranksBefore(slot, best[size - 1], total)) {
+                    continue;
+                }
+                int position = size == best.length ? size - 1 : size++;
+                while (position > 0 && ranksBefore(slot, best[position - 1], total)) {
+                    best[position] = best[position - 1];
+                    position--;
+                }
+                best[position] = slot;
+            }
+            Long[] ids = new Long[size];
+            for (int i = 0; i < size; i++) {
+                ids[i] = idBySlot[best[i]];
+            }
+            return List.of(ids);
+        }
+
+        private boolean ranksBefore(int slot, int other, float[] total) {
+            return total[slot] > total[other] || (total[slot] == total[other] && idBySlot[slot] < idBySlot[other]);
+        }
+    }
+
+    private static final class Postings {
+
+        private int[] slots = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        private void add(int slot, float weight) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            slots[size] = slot;
+            weights[size] = weight;
+            size++;
+        }
+    }
+}
@@ -1,33 +1,253 @@
 package dev.saul.gijoneventos.event;
 
+import dev.saul.gijoneventos.user.UserCache;
 import dev.saul.gijoneventos.user.UserEntity;
 import dev.saul.gijoneventos.user.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 public class EventService {
 
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final ReservationLedger reservationLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EventSearchIndex searchIndex;
+    private final UpcomingEventsIndex upcomingIndex;
+    private final GeoGridIndex geoIndex;
+    private final AttendanceStream attendanceStream;
+    private final EventCatalogVersion catalogVersion;
 
-    public EventService(EventRepository eventRepository, UserRepository userRepository) {
+    @Value("${events.page.default-size:20}")
+    int defaultPageSize;
+
+    @Value("${events.page.max-size:100}")
+    int maxPageSize;
+
+    @Value("${events.geo.default-radius-km:5}")
+    double defaultRadiusKm;
+
+    @Value("${events.geo.max-radius-km:50}")
+    double maxRadiusKm;
+
+    public EventService(EventRepository eventRepository, UserRepository userRepository, UserCache userCache,
+                        ReservationLedger reservationLedger, PlatformTransactionManager transactionManager,
+                        ApplicationEventPublisher eventPublisher, EventSearchIndex searchIndex,
+                        UpcomingEventsIndex upcomingIndex, GeoGridIndex geoIndex, AttendanceStream attendanceStream,
+                        EventCatalogVersion catalogVersion) {
         this.eventRepository = eventRepository;
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.reservationLedger = reservationLedger;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.upcomingIndex = upcomingIndex;
+        this.geoIndex = geoIndex;
+        this.attendanceStream = attendanceStream;
+        this.catalogVersion = catalogVersion;
     }
 
-    public List<EventEntity> findAll(EventFilter filter, UserEntity user) {
-        if (filter == null || filter == EventFilter.ALL) {
-            return eventRepository.findAll();
+    // Lectura de una página: una consulta de proyección (eventos + organizador + nº de asistentes)
+    // y, si se piden, los ids de asistentes de toda la página en una segunda consulta.
+    // El número de sentencias no depende del número de eventos de la página.
+    @Transactional(readOnly = true)
+    public EventPageDTOResponse findPage(EventFilter filter, Long userId, EventRange range, String cursor,
+                                         Integer size, boolean includeAttendees) {
+        CompactEventPage page = findRows(filter, userId, range, cursor, size);
+        return new EventPageDTOResponse(toDTOResponses(page.events(), includeAttendees), page.nextCursor());
+    }
+
+    // La misma página sin pasar por EventDTOResponse, para escribirla con CompactEventPageConverter
+    @Transactional(readOnly = true)
+    public CompactEventPage findCompactPage(EventFilter filter, Long userId, EventRange range, String cursor,
+                                            Integer size, boolean includeAttendees) {
+        CompactEventPage page = findRows(filter, userId, range, cursor, size);
+        if (!includeAttendees) {
+            return page;
         }
-        return switch (filter) {
-            case ATTENDING -> eventRepository.findByAttendeesContaining(user);
-            case ORGANIZED -> eventRepository.findByOrganizer(user);
-            default -> eventRepository.findAll();
+        return new CompactEventPage(page.events(), findAttendeeIdArrays(page.events()), page.nextCursor());
+    }
+
+    private CompactEventPage findRows(EventFilter filter, Long userId, EventRange range, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        EventCursor after = cursor == null || cursor.isBlank() ? null : EventCursor.decode(cursor);
+        EventRange bounds = range == null ? EventRange.ALL : range;
+        // Se pide una fila de más para saber si existe una página siguiente sin hacer un COUNT
+        Limit limit = Limit.of(pageSize + 1);
+        EventFilter mode = filter == null ? EventFilter.ALL : filter;
+
+        List<EventSummary> rows = switch (mode) {
+            case ATTENDING -> after == null
+                ? eventRepository.findFirstPageByAttendee(userId, bounds.from(), bounds.to(), limit)
+                : eventRepository.findPageByAttendeeAfter(userId, bounds.from(), bounds.to(), after.date(), after.id(), limit);
+            case ORGANIZED -> after == null
+                ? eventRepository.findFirstPageByOrganizer(userId, bounds.from(), bounds.to(), limit)
+                : eventRepository.findPageByOrganizerAfter(userId, bounds.from(), bounds.to(), after.date(), after.id(), limit);
+            // Los próximos eventos salen del índice por días; la BD solo se consulta por clave primaria
+            case UPCOMING -> findSummariesInOrder(
+                upcomingIndex.page(bounds, after, pageSize + 1).stream().map(EventCursor::id).toList());
+            default -> after == null
+                ? eventRepository.findFirstPage(bounds.from(), bounds.to(), limit)
+                : eventRepository.findPageAfter(bounds.from(), bounds.to(), after.date(), after.id(), limit);
         };
+
+        boolean hasNext = rows.size() > pageSize;
+        List<EventSummary> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? EventCursor.of(page.get(pageSize - 1)).encode() : null;
+        return new CompactEventPage(page, null, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public EventDTOResponse findDTOById(Long id) {
+        return findDTOById(id, true);
+    }
+
+    @Transactional(readOnly = true)
+    public EventDTOResponse findDTOById(Long id, boolean includeAttendees) {
+        EventSummary event = eventRepository.findSummaryById(id)
+            .orElseThrow(() -> new EntityNotFoundException("Evento no encontrado con ID: " + id));
+        return toDTOResponses(List.of(event), includeAttendees).get(0);
+    }
+
+    // Validadores de las peticiones condicionales (ETag / Last-Modified)
+    public EventVersion findVersion(Long id) {
+        return eventRepository.findVersionById(id)
+            .orElseThrow(() -> new EntityNotFoundException("Evento no encontrado con ID: " + id));
+    }
+
+    // En memoria: validar un listado no hace ninguna consulta
+    public EventVersion findCatalogVersion() {
+        return catalogVersion.current();
+    }
+
+    // Búsqueda de texto: el índice en memoria decide qué eventos y en qué orden; la BD solo aporta
+    // los datos de esos ids (una consulta por clave primaria, más la de asistentes si se piden)
+    @Transactional(readOnly = true)
+    public List<EventDTOResponse> search(String query, Integer size, boolean includeAttendees) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("El texto de búsqueda es obligatorio");
+        }
+        List<Long> ids = searchIndex.search(query, resolvePageSize(size));
+        return toDTOResponses(findSummariesInOrder(ids), includeAttendees);
+    }
+
+    // Búsqueda por cercanía: la rejilla en memoria elige y ordena por distancia; la BD solo carga esos ids
+    @Transactional(readOnly = true)
+    public List<NearbyEventDTOResponse> findNear(double latitude, double longitude, Double radiusKm,
+                                                 Integer size, boolean includeAttendees) {
+        requireCoordinates(latitude, longitude);
+        double radius = radiusKm == null ? defaultRadiusKm : radiusKm;
+        if (!(radius > 0) || radius > maxRadiusKm) {
+            throw new IllegalArgumentException("El radio debe ser mayor a 0 y como máximo " + maxRadiusKm + " km");
+        }
+        return toNearbyResponses(geoIndex.near(latitude, longitude, radius, resolvePageSize(size)), includeAttendees);
+    }
+
+    @Transactional(readOnly = true)
+    public List<NearbyEventDTOResponse> findWithin(double minLat, double minLon, double maxLat, double maxLon,
+                                                   Integer size, boolean includeAttendees) {
+        requireCoordinates(minLat, minLon);
+        requireCoordinates(maxLat, maxLon);
+        if (minLat > maxLat || minLon > maxLon) {
+            throw new IllegalArgumentException("La caja debe indicarse como minLon,minLat,maxLon,maxLat");
+        }
+        return toNearbyResponses(geoIndex.within(minLat, minLon, maxLat, maxLon, resolvePageSize(size)), includeAttendees);
+    }
+
+    private List<NearbyEventDTOResponse> toNearbyResponses(List<GeoHit> hits, boolean includeAttendees) {
+        Map<Long, Double> distances = new HashMap<>();
+        hits.forEach(hit -> distances.put(hit.id(), Math.round(hit.distanceKm() * 1000) / 1000.0));
+        List<EventSummary> events = findSummariesInOrder(hits.stream().map(GeoHit::id).toList());
+        return toDTOResponses(events, includeAttendees).stream()
+            .map(event -> new NearbyEventDTOResponse(event, distances.get(event.getId())))
+            .toList();
+    }
+
+    private static void requireCoordinates(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Coordenadas inválidas: latitud entre -90 y 90, longitud entre -180 y 180");
+        }
+    }
+
+    // Proyecciones de los ids dados, en ese mismo orden (los que ya no existan se omiten)
+    private List<EventSummary> findSummariesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, EventSummary> byId = new HashMap<>();
+        eventRepository.findSummariesByIds(ids).forEach(event -> byId.put(event.id(), event));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private List<EventDTOResponse> toDTOResponses(List<EventSummary> events, boolean includeAttendees) {
+        if (!includeAttendees) {
+            return events.stream().map(event -> EventMapper.toDTOResponse(event, null)).toList();
+        }
+        Map<Long, Set<Long>> attendeeIds = new HashMap<>();
+        if (!events.isEmpty()) {
+            List<Long> eventIds = events.stream().map(EventSummary::id).toList();
+            for (AttendeeRef ref : eventRepository.findAttendeeRefs(eventIds)) {
+                attendeeIds.computeIfAbsent(ref.eventId(), k -> new HashSet<>()).add(ref.userId());
+            }
+        }
+        return events.stream()
+            .map(event -> EventMapper.toDTOResponse(event, attendeeIds.getOrDefault(event.id(), Set.of())))
+            .toList();
+    }
+
+    // Ids de asistentes por evento en arrays primitivos ordenados, sin un Long por asistente en un Set
+    private Map<Long, long[]> findAttendeeIdArrays(List<EventSummary> events) {
+        Map<Long, long[]> attendeeIds = new HashMap<>();
+        if (events.isEmpty()) {
+            return attendeeIds;
+        }
+        // Dos pasadas: contar por evento para reservar cada array a su tamaño exacto y rellenarlo
+        List<AttendeeRef> refs = eventRepository.findAttendeeRefs(events.stream().map(EventSummary::id).toList());
+        Map<Long, int[]> remaining = new HashMap<>();
+        refs.forEach(ref -> remaining.computeIfAbsent(ref.eventId(), k -> new int[1])[0]++);
+        remaining.forEach((eventId, count) -> attendeeIds.put(eventId, new long[count[0]]));
+        for (AttendeeRef ref : refs) {
+            attendeeIds.get(ref.eventId())[--remaining.get(ref.eventId())[0]] = ref.userId();
+        }
+        attendeeIds.values().forEach(Arrays::sort);
+        return attendeeIds;
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor a 0");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    // Solo lee la FK organizer_id: las comprobaciones de propiedad no cargan el organizador
+    public Long findOrganizerId(Long id) {
+        return eventRepository.findOrganizerIdById(id)
+            .orElseThrow(() -> new EntityNotFoundException("Evento no encontrado con ID: " + id));
     }
 
     public EventEntity findById(Long id) {
@@ -35,7 +255,10 @@ public class EventService {
             .orElseThrow(() -> new EntityNotFoundException("Evento no encontrado con ID: " + id));
     }
 
-    public EventEntity createFromDTO(EventDTORequest dto, UserEntity organizer) {
+    @Transactional
+    public EventEntity createFromDTO(EventDTORequest dto, Long organizerId) {
+        // Referencia sin SELECT: el organizador ya viene resuelto (y cacheado) desde el controlador
+        UserEntity organizer = userRepository.getReferenceById(organizerId);
         EventEntity event = new EventEntity();
         event.setTitle(dto.getTitle());
         event.setDescription(dto.getDescription());
@@ -43,13 +266,19 @@ public class EventService {
         event.setLocation(dto.getLocation());
         event.setOrganizer(organizer);
         event.setMaxAttendees(dto.getMaxAttendees());
+        event.setLatitude(dto.getLatitude());
+        event.setLongitude(dto.getLongitude());
         
         // Añadir automáticamente al organizador como asistente
         event.getAttendees().add(organizer);
+        event.setAttendeeCount(1);
         
-        return eventRepository.save(event);
+        EventEntity saved = eventRepository.save(event);
+        eventPublisher.publishEvent(EventChangedEvent.created(saved.getId()));
+        return saved;
     }
 
+    @Transactional
     public EventEntity updateEvent(Long id, EventDTORequest dto) {
         EventEntity event = findById(id);
         event.setTitle(dto.getTitle());
@@ -57,30 +286,100 @@ public class EventService {
         event.setDate(LocalDateTime.parse(dto.getDate()));
         event.setLocation(dto.getLocation());
         event.setMaxAttendees(dto.getMaxAttendees());
-        return eventRepository.save(event);
+        event.setLatitude(dto.getLatitude());
+        event.setLongitude(dto.getLongitude());
+        EventEntity saved = eventRepository.save(event);
+        eventRepository.touch(id);
+        eventPublisher.publishEvent(EventChangedEvent.updated(id));
+        if (reservationLedger.isActive(id)) {
+            // El aforo puede haber cambiado: se aplica sobre las plazas ya reservadas en memoria
+            int capacity = dto.getMaxAttendees();
+            afterCommit(() -> reservationLedger.updateCapacity(id, capacity));
+        }
+        return saved;
     }
 
+    // Apuntarse cuesta O(1) sentencias y no carga la colección de asistentes:
+    // primero se reserva la plaza con un UPDATE condicional y después se inserta la fila.
+    // En modo "ticket drop" decide ReservationLedger en memoria, sin abrir transacción ni pedir conexión.
+    // Tras el cambio solo se avisa a AttendanceStream, que agrupa los avisos y difunde el aforo, y se sube
+    // la versión del catálogo (en modo "ticket drop" la sube ReservationLedger al volcar).
     public void joinEvent(Long id, Long userId) {
-        EventEntity event = findById(id);
-        UserEntity user = userRepository.findById(userId)
-            .orElseThrow(() -> new EntityNotFoundException("Usuario no encontrado con ID: " + userId));
-        if (event.getAttendees().size() >= event.getMaxAttendees()) {
-            throw new IllegalStateException("El evento está completo");
+        requireUser(userId);
+        if (reservationLedger.isActive(id)) {
+            reservationLedger.join(id, userId);
+        } else {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (eventRepository.reserveSeat(id) == 0) {
+                    requireEvent(id);
+                    throw new IllegalStateException("El evento está completo");
+                }
+                if (eventRepository.insertAttendee(id, userId) == 0) {
+                    // Ya estaba apuntado: se devuelve la plaza reservada
+                    eventRepository.releaseSeat(id);
+                }
+            });
+            catalogVersion.changed();
         }
-        event.getAttendees().add(user);
-        eventRepository.save(event);
+        attendanceStream.changed(id);
     }
 
     public void leaveEvent(Long id, Long userId) {
-        EventEntity event = findById(id);
-        UserEntity user = userRepository.findById(userId)
+        requireUser(userId);
+        if (reservationLedger.isActive(id)) {
+            reservationLedger.leave(id, userId);
+        } else {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (eventRepository.deleteAttendee(id, userId) == 0) {
+                    requireEvent(id);
+                    return;
+                }
+                eventRepository.releaseSeat(id);
+            });
+            catalogVersion.changed();
+        }
+        attendanceStream.changed(id);
+    }
+
+    // Activa o desactiva el modo "ticket drop" (solo administradores).
+    // Al desactivarlo se vuelcan las reservas pendientes antes de volver al camino transaccional.
+    @Transactional
+    public void setTicketDrop(Long id, boolean enabled) {
+        if (eventRepository.updateTicketDrop(id, enabled) == 0) {
+            throw new EntityNotFoundException("Evento no encontrado con ID: " + id);
+        }
+        afterCommit(enabled ? () -> reservationLedger.activate(id) : () -> reservationLedger.deactivate(id));
+    }
+
+    // El estado en memoria del libro de reservas solo cambia cuando la BD ya refleja el cambio
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void requireUser(Long userId) {
+        userCache.findById(userId)
             .orElseThrow(() -> new EntityNotFoundException("Usuario no encontrado con ID: " + userId));
-        event.getAttendees().remove(user);
-        eventRepository.save(event);
     }
 
+    private void requireEvent(Long id) {
+        if (!eventRepository.existsById(id)) {
+            throw new EntityNotFoundException("Evento no encontrado con ID: " + id);
+        }
+    }
+
+    @Transactional
     public void deleteEvent(Long id) {
+        if (reservationLedger.isActive(id)) {
+            // Las altas pendientes de un evento borrado no insertan nada (INSERT ... SELECT FROM events)
+            afterCommit(() -> reservationLedger.deactivate(id));
+        }
         EventEntity event = findById(id);
         eventRepository.delete(event);
+        eventPublisher.publishEvent(EventChangedEvent.deleted(id));
     }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package dev.saul.gijoneventos.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de solo lectura de un evento: únicamente las columnas que necesita
+ * EventDTOResponse, con el organizador aplanado y el número de asistentes tomado del contador persistido.
+ */
+public record EventSummary(
+        Long id,
+        String title,
+        String description,
+        LocalDateTime date,
+        String location,
+        int maxAttendees,
+        Long organizerId,
+        String organizerFullName,
+        String organizerUsername,
+        String organizerEmail,
+        String organizerPhone,
+        int attendeeCount,
+        Double latitude,
+        Double longitude
+) {}
@@ -0,0 +1,31 @@
+package dev.saul.gijoneventos.event;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Validadores HTTP de un evento, leídos por clave primaria sin cargar el evento, o del catálogo entero.
+ * epoch abre el ETag y separa las series de version: 1 para un evento (su columna version), el arranque
+ * de la instancia para el catálogo (cambios desde entonces, ver EventCatalogVersion).
+ */
+public record EventVersion(long epoch, long version, LocalDateTime lastModified) {
+
+    // ETag fuerte. userId distingue listados que dependen del usuario (ATTENDING, ORGANIZED) con la misma URL
+    // representation distingue los formatos de una misma URL (p. ej. "compact"); null para el JSON normal
+    public String etag(Long userId, String representation) {
+        StringBuilder etag = new StringBuilder("\"").append(epoch).append('-').append(version)
+            .append('-').append(Long.toHexString(Math.max(0, lastModifiedMillis())));
+        if (userId != null) {
+            etag.append("-u").append(userId);
+        }
+        if (representation != null) {
+            etag.append('-').append(representation);
+        }
+        return etag.append('"').toString();
+    }
+
+    // -1 si no hay eventos (Spring lo interpreta como "sin Last-Modified")
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
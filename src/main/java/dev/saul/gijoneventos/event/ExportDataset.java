@@ -0,0 +1,6 @@
+package dev.saul.gijoneventos.event;
+
+public enum ExportDataset {
+    EVENTS,       // una fila por evento (EventSummary)
+    ATTENDANCE    // una fila por (evento, asistente) (AttendanceRow)
+}
@@ -0,0 +1,350 @@
+package dev.saul.gijoneventos.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Índice espacial en memoria de los eventos con coordenadas: una rejilla uniforme de celdas de
+ * events.geo.cell-size-degrees grados, de las que solo existen las que contienen algún evento.
+ *
+ * Una consulta por radio o por caja calcula qué celdas cubre y solo recorre los eventos de esas celdas
+ * (arrays primitivos de id y coordenadas), así que nunca se escanea la tabla ni el índice entero.
+ * La distancia es la de haversine sobre la esfera terrestre media y solo se devuelven los 'limit' más
+ * cercanos. Se reconstruye al arrancar y se mantiene al día con EventChangedEvent; como en
+ * EventSearchIndex, los cambios que llegan durante la reconstrucción se repiten sobre la rejilla nueva.
+ */
+@Component
+public class GeoGridIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(GeoGridIndex.class);
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.toRadians(1) * EARTH_RADIUS_KM;
+    private static final int REBUILD_CHUNK = 5000;
+
+    // Más cercano primero; a igual distancia, el id menor
+    private static final Comparator<GeoHit> NEAREST_FIRST =
+        Comparator.comparingDouble(GeoHit::distanceKm).thenComparingLong(GeoHit::id);
+
+    private final EventRepository eventRepository;
+    private final double cellSize;
+    private final int rows;
+    private final int columns;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Grid grid = new Grid();
+    // Solo durante una reconstrucción: cambios que la rejilla nueva aún no tiene (bajo el lock)
+    private List<Consumer<Grid>> missed;
+
+    public GeoGridIndex(EventRepository eventRepository,
+                        @Value("${events.geo.cell-size-degrees:0.01}") double cellSize) {
+        if (!(cellSize > 0 && cellSize <= 10)) {
+            throw new IllegalArgumentException("events.geo.cell-size-degrees debe estar entre 0 y 10");
+        }
+        this.eventRepository = eventRepository;
+        this.cellSize = cellSize;
+        this.rows = (int) Math.ceil(180 / cellSize);
+        this.columns = (int) Math.ceil(360 / cellSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Grid rebuilt = new Grid();
+        lock.writeLock().lock();
+        try {
+            missed = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Long afterId = 0L;
+        List<GeoPoint> chunk;
+        do {
+            chunk = eventRepository.findGeoPointsAfterId(afterId, Limit.of(REBUILD_CHUNK));
+            chunk.forEach(point -> rebuilt.put(point.id(), point.latitude(), point.longitude()));
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).id();
+            }
+        } while (chunk.size() == REBUILD_CHUNK);
+        lock.writeLock().lock();
+        try {
+            // Coordenadas cambiadas de un evento ya leído, o eventos creados tras el último bloque
+            missed.forEach(change -> change.accept(rebuilt));
+            missed = null;
+            grid = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice geográfico reconstruido: {} eventos en {} celdas", rebuilt.cellById.size(), rebuilt.cells.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        if (change.type() == EventChangedEvent.ChangeType.DELETED) {
+            change.eventIds().forEach(this::remove);
+            return;
+        }
+        eventRepository.findGeoPointsByIds(change.eventIds()).forEach(this::put);
+    }
+
+    public void put(GeoPoint point) {
+        if (!point.located()) {
+            remove(point.id());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            apply(target -> target.put(point.id(), point.latitude(), point.longitude()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long eventId) {
+        lock.writeLock().lock();
+        try {
+            apply(target -> target.remove(eventId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Con el lock de escritura tomado
+    private void apply(Consumer<Grid> change) {
+        change.accept(grid);
+        if (missed != null) {
+            missed.add(change);
+        }
+    }
+
+    // Los 'limit' eventos más cercanos a (latitude, longitude) dentro de radiusKm, del más cercano al más lejano
+    public List<GeoHit> near(double latitude, double longitude, double radiusKm, int limit) {
+        double deltaLat = radiusKm / KM_PER_DEGREE;
+        // Un grado de longitud mide menos cuanto más lejos del ecuador: se usa la latitud más alejada del círculo
+        double cosLat = Math.cos(Math.toRadians(Math.min(90, Math.abs(latitude) + deltaLat)));
+        double deltaLon = cosLat < 1e-9 ? 360 : deltaLat / cosLat;
+        double cosQuery = Math.cos(Math.toRadians(latitude));
+        TopHits hits = new TopHits(limit);
+        lock.readLock().lock();
+        try {
+            scan(latitude - deltaLat, longitude - deltaLon, latitude + deltaLat, longitude + deltaLon, cell -> {
+                for (int i = 0; i < cell.size; i++) {
+                    // Descarte barato por latitud antes de calcular la distancia exacta
+                    if (Math.abs(cell.latitudes[i] - latitude) > deltaLat) {
+                        continue;
+                    }
+                    double distance = distanceKm(latitude, longitude, cosQuery, cell.latitudes[i], cell.longitudes[i], cell.cosLatitudes[i]);
+                    if (distance <= radiusKm) {
+                        hits.offer(cell.ids[i], distance);
+                    }
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hits.sorted();
+    }
+
+    // Los 'limit' eventos dentro de la caja más cercanos a su centro
+    public List<GeoHit> within(double minLat, double minLon, double maxLat, double maxLon, int limit) {
+        double centerLat = (minLat + maxLat) / 2;
+        double centerLon = (minLon + maxLon) / 2;
+        double cosCenter = Math.cos(Math.toRadians(centerLat));
+        TopHits hits = new TopHits(limit);
+        lock.readLock().lock();
+        try {
+            scan(minLat, minLon, maxLat, maxLon, cell -> {
+                for (int i = 0; i < cell.size; i++) {
+                    double lat = cell.latitudes[i];
+                    double lon = cell.longitudes[i];
+                    if (lat >= minLat && lat <= maxLat && lon >= minLon && lon <= maxLon) {
+                        hits.offer(cell.ids[i], distanceKm(centerLat, centerLon, cosCenter, lat, lon, cell.cosLatitudes[i]));
+                    }
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hits.sorted();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return grid.cellById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Visita las celdas ocupadas que cortan la caja dada (longitudes fuera de [-180, 180) dan la vuelta)
+    private void scan(double minLat, double minLon, double maxLat, double maxLon, Consumer<Cell> visitor) {
+        int rowFrom = row(minLat);
+        int rowTo = row(maxLat);
+        long columnFrom = (long) Math.floor((minLon + 180) / cellSize);
+        long columnTo = (long) Math.floor((maxLon + 180) / cellSize);
+        if (columnTo - columnFrom + 1 >= columns) {
+            columnFrom = 0;
+            columnTo = columns - 1;
+        }
+        long covered = (rowTo - rowFrom + 1) * (columnTo - columnFrom + 1);
+        if (covered > grid.cells.size()) {
+            // Caja enorme frente a lo ocupado: sale más barato recorrer las celdas existentes
+            for (Map.Entry<Long, Cell> entry : grid.cells.entrySet()) {
+                long key = entry.getKey();
+                int row = (int) (key / columns);
+                long column = key % columns;
+                if (row >= rowFrom && row <= rowTo && columnInRange(column, columnFrom, columnTo)) {
+                    visitor.accept(entry.getValue());
+                }
+            }
+            return;
+        }
+        for (int row = rowFrom; row <= rowTo; row++) {
+            for (long column = columnFrom; column <= columnTo; column++) {
+                Cell cell = grid.cells.get(key(row, (int) Math.floorMod(column, (long) columns)));
+                if (cell != null) {
+                    visitor.accept(cell);
+                }
+            }
+        }
+    }
+
+    private boolean columnInRange(long column, long from, long to) {
+        for (long shifted = column - columns; shifted <= to; shifted += columns) {
+            if (shifted >= from) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int row(double latitude) {
+        int row = (int) Math.floor((latitude + 90) / cellSize);
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        int column = (int) Math.floorMod((long) Math.floor((longitude + 180) / cellSize), (long) columns);
+        return key(row(latitude), column);
+    }
+
+    private long key(int row, int column) {
+        return (long) row * columns + column;
+    }
+
+    // Haversine con los cosenos de las latitudes ya calculados
+    private static double distanceKm(double lat1, double lon1, double cosLat1, double lat2, double lon2, double cosLat2) {
+        double sinLat = Math.sin(Math.toRadians(lat2 - lat1) / 2);
+        double sinLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+        double a = sinLat * sinLat + cosLat1 * cosLat2 * sinLon * sinLon;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private final class Grid {
+
+        final Map<Long, Cell> cells = new HashMap<>();
+        final Map<Long, Long> cellById = new HashMap<>();
+
+        void put(long id, double latitude, double longitude) {
+            remove(id);
+            long key = cellKey(latitude, longitude);
+            cells.computeIfAbsent(key, k -> new Cell()).add(id, latitude, longitude);
+            cellById.put(id, key);
+        }
+
+        void remove(long id) {
+            Long key = cellById.remove(id);
+            if (key == null) {
+                return;
+            }
+            Cell cell = cells.get(key);
+            cell.remove(id);
+            if (cell.size == 0) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    // Eventos de una celda en arrays paralelos; el borrado mueve el último al hueco
+    private static final class Cell {
+
+        long[] ids = new long[4];
+        double[] latitudes = new double[4];
+        double[] longitudes = new double[4];
+        double[] cosLatitudes = new double[4];
+        int size;
+
+        void add(long id, double latitude, double longitude) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                latitudes = Arrays.copyOf(latitudes, capacity);
+                longitudes = Arrays.copyOf(longitudes, capacity);
+                cosLatitudes = Arrays.copyOf(cosLatitudes, capacity);
+            }
+            ids[size] = id;
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            cosLatitudes[size] = Math.cos(Math.toRadians(latitude));
+            size++;
+        }
+
+        void remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    latitudes[i] = latitudes[size];
+                    longitudes[i] = longitudes[size];
+                    cosLatitudes[i] = cosLatitudes[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    // Montículo acotado con los 'limit' más cercanos vistos hasta ahora (el más lejano en la cima)
+    private static final class TopHits {
+
+        private final int limit;
+        private final PriorityQueue<GeoHit> heap;
+
+        TopHits(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(limit + 1, NEAREST_FIRST.reversed());
+        }
+
+        void offer(long id, double distanceKm) {
+            if (heap.size() == limit) {
+                GeoHit farthest = heap.peek();
+                if (distanceKm > farthest.distanceKm() || (distanceKm == farthest.distanceKm() && id > farthest.id())) {
+                    return;
+                }
+                heap.poll();
+            }
+            heap.add(new GeoHit(id, distanceKm));
+        }
+
+        List<GeoHit> sorted() {
+            List<GeoHit> hits = new ArrayList<>(heap);
+            hits.sort(NEAREST_FIRST);
+            return hits;
+        }
+    }
+}
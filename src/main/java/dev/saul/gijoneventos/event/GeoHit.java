@@ -0,0 +1,7 @@
+package dev.saul.gijoneventos.event;
+
+/**
+ * Resultado de GeoGridIndex: id del evento y distancia en km al punto de referencia de la consulta.
+ */
+public record GeoHit(long id, double distanceKm) {
+}
@@ -0,0 +1,11 @@
+package dev.saul.gijoneventos.event;
+
+/**
+ * Coordenadas de un evento para GeoGridIndex. latitude y longitude son null si el evento no está geolocalizado.
+ */
+public record GeoPoint(Long id, Double latitude, Double longitude) {
+
+    public boolean located() {
+        return latitude != null && longitude != null;
+    }
+}
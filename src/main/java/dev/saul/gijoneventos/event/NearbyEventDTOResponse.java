@@ -0,0 +1,9 @@
+package dev.saul.gijoneventos.event;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+// Los campos del evento van en la raíz, como en el resto de listados, junto a su distancia
+public record NearbyEventDTOResponse(
+        @JsonUnwrapped EventDTOResponse event,
+        double distanceKm    // al punto pedido o al centro de la caja, redondeada a metros
+) {}
@@ -0,0 +1,304 @@
+package dev.saul.gijoneventos.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Libro de reservas en memoria para los eventos en modo "ticket drop".
+ *
+ * La admisión se decide con un contador atómico (CAS) y un mapa concurrente de asistentes por evento,
+ * sembrados desde la BD la primera vez que se usan (o tras un reinicio). Las altas y bajas aceptadas
+ * se encolan y se escriben en event_attendees por lotes cada events.ticket-drop.flush-interval,
+ * recalculando después attendee_count de los eventos tocados.
+ *
+ * Pensado para una sola instancia de la aplicación: el modo debe activarse antes de abrir las
+ * inscripciones. Las operaciones aún no volcadas se pierden si el proceso muere sin parada ordenada.
+ */
+@Component
+public class ReservationLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationLedger.class);
+
+    private static final String INSERT_ATTENDEE = """
+        INSERT INTO event_attendees (event_id, user_id)
+        SELECT e.id_event, ? FROM events e
+        WHERE e.id_event = ?
+          AND NOT EXISTS (SELECT 1 FROM event_attendees a WHERE a.event_id = ? AND a.user_id = ?)""";
+
+    private static final String DELETE_ATTENDEE = "DELETE FROM event_attendees WHERE event_id = ? AND user_id = ?";
+
+    private static final String RECOUNT = """
+        UPDATE events SET
+            attendee_count = (SELECT COUNT(*) FROM event_attendees a WHERE a.event_id = events.id_event),
+            version = version + 1, last_modified = LOCALTIMESTAMP
+        WHERE id_event IN (:ids)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EventCatalogVersion catalogVersion;
+
+    // Eventos con el modo activo: se consulta en cada join, así que vive en memoria
+    private final Set<Long> activeEvents = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Seats> ledgers = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<PendingWrite> pending = new ConcurrentLinkedDeque<>();
+    // Volcado y siembra se excluyen entre sí. ReentrantLock y no synchronized: ambos hacen JDBC
+    // y con hilos virtuales un monitor retenido durante E/S fija el hilo portador (JDK 21).
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Value("${events.ticket-drop.flush-batch-size:500}")
+    int flushBatchSize = 500;
+
+    public ReservationLedger(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             EventCatalogVersion catalogVersion) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogVersion = catalogVersion;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        // Transacción propia: el volcado puede lanzarse desde un afterCommit de EventService
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Tras un reinicio: qué eventos siguen en modo ticket drop. Sus asientos se siembran al primer uso.
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        activeEvents.clear();
+        ledgers.clear();
+        activeEvents.addAll(jdbcTemplate.queryForList("SELECT id_event FROM events WHERE ticket_drop = TRUE", Long.class));
+    }
+
+    public boolean isActive(Long eventId) {
+        return activeEvents.contains(eventId);
+    }
+
+    // Un join que pasó isActive() antes de un deactivate() puede haber vuelto a sembrar el evento después.
+    // Esos asientos no se han mantenido mientras el modo estaba apagado: se descartan y se siembran de nuevo.
+    public void activate(Long eventId) {
+        lock.lock();
+        try {
+            if (!activeEvents.contains(eventId)) {
+                ledgers.remove(eventId);
+            }
+            activeEvents.add(eventId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Vuelca lo pendiente para que el camino transaccional parta de un attendee_count correcto
+    public void deactivate(Long eventId) {
+        activeEvents.remove(eventId);
+        ledgers.remove(eventId);
+        flush();
+    }
+
+    // Cambio de aforo: se aplica sobre los asientos vivos. Volver a sembrar perdería los joins que ya
+    // reservaron plaza pero aún no están en la cola, y esa plaza contaría dos veces.
+    // Con el lock de la siembra: una siembra en curso que leyó el aforo anterior ya está en el mapa.
+    public void updateCapacity(Long eventId, int capacity) {
+        lock.lock();
+        try {
+            Seats seats = ledgers.get(eventId);
+            if (seats != null) {
+                seats.capacity = capacity;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Alta, plaza y escritura pendiente cambian juntas dentro del compute() del usuario: un join y un
+    // leave concurrentes del mismo usuario se serializan y no pueden descuadrar el contador ni la cola
+    public void join(Long eventId, Long userId) {
+        Seats seats = seats(eventId);
+        seats.attendees.compute(userId, (id, attending) -> {
+            if (attending != null) {
+                return attending;
+            }
+            if (!seats.tryReserve()) {
+                throw new IllegalStateException("El evento está completo");
+            }
+            pending.add(new PendingWrite(eventId, userId, true));
+            return Boolean.TRUE;
+        });
+    }
+
+    public void leave(Long eventId, Long userId) {
+        Seats seats = seats(eventId);
+        seats.attendees.computeIfPresent(userId, (id, attending) -> {
+            seats.taken.decrementAndGet();
+            pending.add(new PendingWrite(eventId, userId, false));
+            return null;
+        });
+    }
+
+    // Plazas ocupadas según el libro; vacío si el evento no está en modo ticket drop o aún no se ha sembrado
+    public Optional<Integer> taken(Long eventId) {
+        Seats seats = isActive(eventId) ? ledgers.get(eventId) : null;
+        return seats == null ? Optional.empty() : Optional.of(seats.taken.get());
+    }
+
+    public int pendingWrites() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${events.ticket-drop.flush-interval:PT0.2S}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Un único volcado a la vez; el orden de la cola se respeta para que join/leave/join
+    // de un mismo usuario acabe en el estado correcto.
+    public void flush() {
+        lock.lock();
+        try {
+            drain();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drain() {
+        while (!pending.isEmpty()) {
+            List<PendingWrite> batch = new ArrayList<>(flushBatchSize);
+            PendingWrite write;
+            while (batch.size() < flushBatchSize && (write = pending.poll()) != null) {
+                batch.add(write);
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+                // Los listados cambian cuando las reservas llegan a la BD, no al aceptarlas en memoria
+                catalogVersion.changed();
+            } catch (RuntimeException e) {
+                // Se devuelven a la cabeza de la cola en su orden original y se reintenta en el siguiente ciclo
+                for (int i = batch.size() - 1; i >= 0; i--) {
+                    pending.addFirst(batch.get(i));
+                }
+                log.warn("No se pudieron volcar {} reservas, se reintentará", batch.size(), e);
+                return;
+            }
+        }
+    }
+
+    private void write(List<PendingWrite> batch) {
+        // Tramos consecutivos del mismo tipo van en un único batchUpdate
+        int start = 0;
+        while (start < batch.size()) {
+            boolean join = batch.get(start).join();
+            int end = start;
+            while (end < batch.size() && batch.get(end).join() == join) {
+                end++;
+            }
+            List<Object[]> args = new ArrayList<>(end - start);
+            for (PendingWrite write : batch.subList(start, end)) {
+                args.add(join
+                    ? new Object[] { write.userId(), write.eventId(), write.eventId(), write.userId() }
+                    : new Object[] { write.eventId(), write.userId() });
+            }
+            jdbcTemplate.batchUpdate(join ? INSERT_ATTENDEE : DELETE_ATTENDEE, args);
+            start = end;
+        }
+        Collection<Long> eventIds = batch.stream().map(PendingWrite::eventId).distinct().toList();
+        namedJdbcTemplate.update(RECOUNT, new MapSqlParameterSource("ids", eventIds));
+    }
+
+    // Sin computeIfAbsent: la siembra consulta la BD y no debe hacerse con el cubo del mapa bloqueado
+    private Seats seats(Long eventId) {
+        Seats seats = ledgers.get(eventId);
+        if (seats != null) {
+            return seats;
+        }
+        // Excluida con flush(): un lote a medio volcar no puede quedar fuera de la BD y de la cola a la vez
+        lock.lock();
+        try {
+            seats = ledgers.get(eventId);
+            if (seats == null) {
+                seats = load(eventId);
+                ledgers.put(eventId, seats);
+            }
+            return seats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Seats load(Long eventId) {
+        List<Integer> capacity = jdbcTemplate.queryForList(
+            "SELECT max_attendees FROM events WHERE id_event = ?", Integer.class, eventId);
+        if (capacity.isEmpty()) {
+            throw new EntityNotFoundException("Evento no encontrado con ID: " + eventId);
+        }
+        Seats seats = new Seats(capacity.get(0));
+        for (Long userId : jdbcTemplate.queryForList("SELECT user_id FROM event_attendees WHERE event_id = ?", Long.class, eventId)) {
+            seats.attendees.put(userId, Boolean.TRUE);
+        }
+        // Lo que aún esté en la cola para este evento (p. ej. tras un evict) también cuenta
+        for (PendingWrite write : pending) {
+            if (write.eventId().equals(eventId)) {
+                if (write.join()) {
+                    seats.attendees.put(write.userId(), Boolean.TRUE);
+                } else {
+                    seats.attendees.remove(write.userId());
+                }
+            }
+        }
+        seats.taken.set(seats.attendees.size());
+        return seats;
+    }
+
+    private static final class Seats {
+
+        // Si baja por debajo de las plazas ocupadas, no se admite a nadie hasta que haya bajas
+        private volatile int capacity;
+        private final AtomicInteger taken = new AtomicInteger();
+        // compute() de ConcurrentHashMap es atómico por clave; el valor solo marca la presencia
+        private final ConcurrentHashMap<Long, Boolean> attendees = new ConcurrentHashMap<>();
+
+        private Seats(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private boolean tryReserve() {
+            int current;
+            do {
+                current = taken.get();
+                if (current >= capacity) {
+                    return false;
+                }
+            } while (!taken.compareAndSet(current, current + 1));
+            return true;
+        }
+    }
+
+    private record PendingWrite(Long eventId, Long userId, boolean join) {}
+}
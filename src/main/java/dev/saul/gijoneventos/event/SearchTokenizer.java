@@ -0,0 +1,52 @@
+package dev.saul.gijoneventos.event;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenizador para la búsqueda de eventos: minúsculas, sin tildes ni diéresis ("Gijón" → "gijon",
+ * "pingüino" → "pinguino"), cortes en todo lo que no sea letra o dígito y sin stopwords del español.
+ * Se aplica igual al indexar y al buscar.
+ */
+final class SearchTokenizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Ya sin tildes, porque se comparan después de normalizar
+    private static final Set<String> STOPWORDS = Set.of(
+        "a", "al", "algo", "algunas", "algunos", "ante", "antes", "como", "con", "contra", "cual", "cuando",
+        "de", "del", "desde", "donde", "durante", "e", "el", "ella", "ellas", "ellos", "en", "entre", "era",
+        "es", "esa", "esas", "ese", "eso", "esos", "esta", "estas", "este", "esto", "estos", "fue", "ha", "hay",
+        "hasta", "la", "las", "le", "les", "lo", "los", "mas", "me", "mi", "mucho", "muy", "nada", "ni", "no",
+        "nos", "o", "otra", "otras", "otro", "otros", "para", "pero", "poco", "por", "porque", "que", "quien",
+        "se", "ser", "si", "sin", "sobre", "son", "su", "sus", "tambien", "te", "todo", "todos", "tu", "u",
+        "un", "una", "unas", "uno", "unos", "y", "ya", "yo");
+
+    private SearchTokenizer() {
+    }
+
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        for (String token : SEPARATORS.split(fold(text))) {
+            // Una sola letra no aporta nada; un dígito suelto sí (p. ej. "5k")
+            if (token.isEmpty() || STOPWORDS.contains(token) || (token.length() == 1 && !Character.isDigit(token.charAt(0)))) {
+                continue;
+            }
+            tokens.add(token);
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,134 @@
+package dev.saul.gijoneventos.event;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Índice en memoria de los eventos futuros, agrupados en cubos por día y ordenados por (date, id)
+ * dentro de cada cubo: la misma clave que la paginación por keyset de GET /events.
+ *
+ * Sirve el filtro UPCOMING sin tocar la tabla: una página recorre los cubos desde hoy (o desde 'from')
+ * y solo después se cargan por clave primaria los eventos elegidos. Los cubos de días pasados se
+ * descartan enteros cada madrugada, así que los eventos pasados nunca se recorren.
+ */
+@Component
+public class UpcomingEventsIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UpcomingEventsIndex.class);
+
+    private static final Comparator<EventCursor> KEYSET_ORDER =
+        Comparator.comparing(EventCursor::date).thenComparing(EventCursor::id);
+
+    private final EventRepository eventRepository;
+    private final Clock clock;
+
+    private final ConcurrentSkipListMap<LocalDate, NavigableSet<EventCursor>> buckets = new ConcurrentSkipListMap<>();
+    private final Map<Long, LocalDateTime> dateById = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UpcomingEventsIndex(EventRepository eventRepository) {
+        this(eventRepository, Clock.systemDefaultZone());
+    }
+
+    UpcomingEventsIndex(EventRepository eventRepository, Clock clock) {
+        this.eventRepository = eventRepository;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        buckets.clear();
+        dateById.clear();
+        // Range scan de idx_events_date_id: solo se leen eventos desde hoy
+        eventRepository.findKeysFrom(today().atStartOfDay()).forEach(this::put);
+        log.info("Índice de próximos eventos reconstruido: {} eventos en {} días", dateById.size(), buckets.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        if (change.type() == EventChangedEvent.ChangeType.DELETED) {
+            change.eventIds().forEach(this::remove);
+            return;
+        }
+        eventRepository.findKeysByIds(change.eventIds()).forEach(this::put);
+    }
+
+    public synchronized void put(EventCursor key) {
+        remove(key.id());
+        if (key.date().toLocalDate().isBefore(today())) {
+            return;
+        }
+        buckets.computeIfAbsent(key.date().toLocalDate(), day -> new ConcurrentSkipListSet<>(KEYSET_ORDER)).add(key);
+        dateById.put(key.id(), key.date());
+    }
+
+    public synchronized void remove(Long eventId) {
+        LocalDateTime date = dateById.remove(eventId);
+        if (date != null) {
+            NavigableSet<EventCursor> bucket = buckets.get(date.toLocalDate());
+            if (bucket != null) {
+                bucket.remove(new EventCursor(date, eventId));
+                if (bucket.isEmpty()) {
+                    buckets.remove(date.toLocalDate());
+                }
+            }
+        }
+    }
+
+    // Hasta 'limit' claves dentro de [range.from, range.to), posteriores a 'after' y no anteriores a ahora
+    public List<EventCursor> page(EventRange range, EventCursor after, int limit) {
+        EventRange upcoming = range.notBefore(LocalDateTime.now(clock));
+        EventCursor start = new EventCursor(upcoming.from(), Long.MIN_VALUE);
+        if (after != null && KEYSET_ORDER.compare(after, start) >= 0) {
+            start = after;
+        }
+        boolean inclusive = start != after;
+        List<EventCursor> keys = new ArrayList<>(limit);
+        if (!start.date().isBefore(upcoming.to())) {
+            return keys;
+        }
+        for (NavigableSet<EventCursor> bucket : buckets.subMap(start.date().toLocalDate(), true, upcoming.to().toLocalDate(), true).values()) {
+            for (EventCursor key : bucket.tailSet(start, inclusive)) {
+                if (!key.date().isBefore(upcoming.to()) || keys.size() == limit) {
+                    return keys;
+                }
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    public int size() {
+        return dateById.size();
+    }
+
+    // Poco después de medianoche se tiran los cubos de días ya pasados
+    @Scheduled(cron = "${events.upcoming.prune-cron:0 5 0 * * *}")
+    public synchronized void prune() {
+        Map<LocalDate, NavigableSet<EventCursor>> past = buckets.headMap(today());
+        past.values().forEach(bucket -> bucket.forEach(key -> dateById.remove(key.id())));
+        past.clear();
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(clock);
+    }
+}
@@ -0,0 +1,97 @@
+package dev.saul.gijoneventos.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Estadísticas de Hibernate como métricas hibernate.* (mismos nombres que hibernate-micrometer):
+ * consultas, sentencias preparadas, cargas de entidades y colecciones, caché de segundo nivel y de
+ * consultas, transacciones. Solo tienen valores con hibernate.generate_statistics=true.
+ *
+ * Por cada región de la caché de segundo nivel (roles, users, users.roles, events, consultas):
+ * hibernate.cache.region.requests{region, result=hit|miss}, hibernate.cache.region.puts{region} y
+ * hibernate.cache.region.hit.ratio{region}, la proporción de aciertos desde el arranque.
+ */
+@Component
+public class HibernateStatisticsMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "hibernate.sessions.open", "Sesiones abiertas", Statistics::getSessionOpenCount);
+        counter(registry, "hibernate.transactions", "Transacciones completadas", Statistics::getTransactionCount);
+        counter(registry, "hibernate.statements", "Sentencias JDBC preparadas", Statistics::getPrepareStatementCount, "status", "prepared");
+        counter(registry, "hibernate.query.executions", "Consultas HQL/SQL ejecutadas", Statistics::getQueryExecutionCount);
+        TimeGauge.builder("hibernate.query.executions.max", statistics, TimeUnit.MILLISECONDS, Statistics::getQueryExecutionMaxTime)
+            .description("Consulta más lenta desde el arranque")
+            .register(registry);
+
+        counter(registry, "hibernate.entities.loads", "Entidades cargadas", Statistics::getEntityLoadCount);
+        counter(registry, "hibernate.entities.fetches", "Entidades traídas con una SELECT aparte (lazy)", Statistics::getEntityFetchCount);
+        counter(registry, "hibernate.entities.inserts", "Entidades insertadas", Statistics::getEntityInsertCount);
+        counter(registry, "hibernate.entities.updates", "Entidades actualizadas", Statistics::getEntityUpdateCount);
+        counter(registry, "hibernate.entities.deletes", "Entidades borradas", Statistics::getEntityDeleteCount);
+        counter(registry, "hibernate.collections.loads", "Colecciones cargadas", Statistics::getCollectionLoadCount);
+        counter(registry, "hibernate.collections.fetches", "Colecciones traídas con una SELECT aparte (lazy)", Statistics::getCollectionFetchCount);
+
+        counter(registry, "hibernate.second.level.cache.requests", "Búsquedas en la caché de segundo nivel",
+            Statistics::getSecondLevelCacheHitCount, "result", "hit");
+        counter(registry, "hibernate.second.level.cache.requests", "Búsquedas en la caché de segundo nivel",
+            Statistics::getSecondLevelCacheMissCount, "result", "miss");
+        counter(registry, "hibernate.second.level.cache.puts", "Entradas guardadas en la caché de segundo nivel",
+            Statistics::getSecondLevelCachePutCount);
+        counter(registry, "hibernate.cache.query.requests", "Búsquedas en la caché de consultas",
+            Statistics::getQueryCacheHitCount, "result", "hit");
+        counter(registry, "hibernate.cache.query.requests", "Búsquedas en la caché de consultas",
+            Statistics::getQueryCacheMissCount, "result", "miss");
+
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            if (statistics.getCacheRegionStatistics(region) != null) {
+                bindRegion(registry, region);
+            }
+        }
+    }
+
+    private void bindRegion(MeterRegistry registry, String region) {
+        counter(registry, "hibernate.cache.region.requests", "Búsquedas en una región de la caché de segundo nivel",
+            stats -> stats.getCacheRegionStatistics(region).getHitCount(), "region", region, "result", "hit");
+        counter(registry, "hibernate.cache.region.requests", "Búsquedas en una región de la caché de segundo nivel",
+            stats -> stats.getCacheRegionStatistics(region).getMissCount(), "region", region, "result", "miss");
+        counter(registry, "hibernate.cache.region.puts", "Entradas guardadas en una región de la caché de segundo nivel",
+            stats -> stats.getCacheRegionStatistics(region).getPutCount(), "region", region);
+        Gauge.builder("hibernate.cache.region.hit.ratio", statistics, stats -> hitRatio(stats.getCacheRegionStatistics(region)))
+            .description("Proporción de aciertos de una región de la caché de segundo nivel")
+            .tags("region", region)
+            .register(registry);
+    }
+
+    private static double hitRatio(CacheRegionStatistics region) {
+        long hits = region.getHitCount();
+        long requests = hits + region.getMissCount();
+        return requests == 0 ? Double.NaN : (double) hits / requests;
+    }
+
+    private void counter(MeterRegistry registry, String name, String description, ToDoubleFunction<Statistics> value, String... tags) {
+        FunctionCounter.builder(name, statistics, value)
+            .description(description)
+            .tags(tags)
+            .register(registry);
+    }
+}
@@ -0,0 +1,207 @@
+package dev.saul.gijoneventos.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+
+/**
+ * GET /actuator/prometheus: todas las métricas del registro en el formato de texto de Prometheus
+ * (version 0.0.4), para que un Prometheus local las recoja sin pasar por /actuator/metrics.
+ *
+ * Convierte los nombres como el registro oficial de Micrometer (puntos a guiones bajos, sufijos
+ * _total y _seconds), así que si más adelante se añade micrometer-registry-prometheus las series no
+ * cambian. Los timers con SLO configurados (management.metrics.distribution.slo.*) publican además
+ * sus cubos _bucket{le=...}. El máximo de timers y summaries va aparte, en una familia gauge <nombre>_max
+ * con su propio # TYPE, como en ese registro: un histogram o summary no admite series _max.
+ */
+@Component
+@WebEndpoint(id = "prometheus")
+public class PrometheusEndpoint {
+
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MeterRegistry registry;
+
+    public PrometheusEndpoint(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation(produces = CONTENT_TYPE)
+    public String scrape() {
+        // Agrupadas por nombre: Prometheus exige las líneas de una familia seguidas y un único # TYPE
+        Map<String, List<Meter>> families = new TreeMap<>();
+        for (Meter meter : registry.getMeters()) {
+            families.computeIfAbsent(meter.getId().getName(), name -> new ArrayList<>()).add(meter);
+        }
+        StringBuilder out = new StringBuilder(64 * 1024);
+        families.values().forEach(meters -> {
+            meters.sort(Comparator.comparing(meter -> meter.getId().getTags().toString()));
+            write(out, meters);
+        });
+        return out.toString();
+    }
+
+    private void write(StringBuilder out, List<Meter> meters) {
+        Meter first = meters.get(0);
+        String description = first.getId().getDescription();
+        if (first instanceof Timer || first instanceof FunctionTimer || first instanceof LongTaskTimer) {
+            String name = sanitize(first.getId().getName()) + "_seconds";
+            header(out, name, description, first instanceof Timer timer && hasBuckets(timer) ? "histogram" : "summary");
+            meters.forEach(meter -> writeTimer(out, name, meter));
+            if (!(first instanceof FunctionTimer)) {
+                header(out, name + "_max", description, "gauge");
+                for (Meter meter : meters) {
+                    sample(out, name + "_max", meter, meter instanceof Timer timer
+                        ? timer.max(TimeUnit.SECONDS) : ((LongTaskTimer) meter).max(TimeUnit.SECONDS));
+                }
+            }
+        } else if (first instanceof DistributionSummary) {
+            String name = sanitize(first.getId().getName()) + unit(first);
+            header(out, name, description, "summary");
+            for (Meter meter : meters) {
+                DistributionSummary summary = (DistributionSummary) meter;
+                sample(out, name + "_count", meter, summary.count());
+                sample(out, name + "_sum", meter, summary.totalAmount());
+            }
+            header(out, name + "_max", description, "gauge");
+            meters.forEach(meter -> sample(out, name + "_max", meter, ((DistributionSummary) meter).max()));
+        } else if (first instanceof Counter || first instanceof FunctionCounter) {
+            String name = sanitize(first.getId().getName()) + unit(first) + "_total";
+            header(out, name, description, "counter");
+            for (Meter meter : meters) {
+                sample(out, name, meter, meter instanceof Counter counter ? counter.count() : ((FunctionCounter) meter).count());
+            }
+        } else if (first instanceof TimeGauge) {
+            String name = sanitize(first.getId().getName()) + "_seconds";
+            header(out, name, description, "gauge");
+            meters.forEach(meter -> sample(out, name, meter, ((TimeGauge) meter).value(TimeUnit.SECONDS)));
+        } else if (first instanceof Gauge) {
+            String name = sanitize(first.getId().getName()) + unit(first);
+            header(out, name, description, "gauge");
+            meters.forEach(meter -> sample(out, name, meter, ((Gauge) meter).value()));
+        } else {
+            // Meter genérico: una serie por medida (statistic)
+            String name = sanitize(first.getId().getName()) + unit(first);
+            header(out, name, description, "untyped");
+            for (Meter meter : meters) {
+                for (Measurement measurement : meter.measure()) {
+                    sample(out, name + "_" + measurement.getStatistic().getTagValueRepresentation(), meter, measurement.getValue());
+                }
+            }
+        }
+    }
+
+    private void writeTimer(StringBuilder out, String name, Meter meter) {
+        if (meter instanceof Timer timer) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            if (hasBuckets(timer)) {
+                // Cuentas ya acumuladas por cubo (el registro es de tipo CUMULATIVE), como pide Prometheus
+                for (CountAtBucket bucket : snapshot.histogramCounts()) {
+                    sample(out, name + "_bucket", meter, "le", format(bucket.bucket(TimeUnit.SECONDS)), bucket.count());
+                }
+                sample(out, name + "_bucket", meter, "le", "+Inf", snapshot.count());
+            }
+            sample(out, name + "_count", meter, snapshot.count());
+            sample(out, name + "_sum", meter, snapshot.total(TimeUnit.SECONDS));
+        } else if (meter instanceof FunctionTimer timer) {
+            sample(out, name + "_count", meter, timer.count());
+            sample(out, name + "_sum", meter, timer.totalTime(TimeUnit.SECONDS));
+        } else if (meter instanceof LongTaskTimer timer) {
+            sample(out, name + "_active_count", meter, timer.activeTasks());
+            sample(out, name + "_duration_sum", meter, timer.duration(TimeUnit.SECONDS));
+        }
+    }
+
+    private static boolean hasBuckets(Timer timer) {
+        return timer.takeSnapshot().histogramCounts().length > 0;
+    }
+
+    private static void header(StringBuilder out, String name, String description, String type) {
+        if (description != null && !description.isBlank()) {
+            out.append("# HELP ").append(name).append(' ').append(description.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        }
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, Meter meter, double value) {
+        sample(out, name, meter, null, null, value);
+    }
+
+    private static void sample(StringBuilder out, String name, Meter meter, String extraKey, String extraValue, double value) {
+        out.append(name);
+        List<Tag> tags = meter.getId().getTags();
+        if (!tags.isEmpty() || extraKey != null) {
+            out.append('{');
+            boolean comma = false;
+            for (Tag tag : tags) {
+                comma = label(out, comma, sanitize(tag.getKey()), tag.getValue());
+            }
+            if (extraKey != null) {
+                label(out, comma, extraKey, extraValue);
+            }
+            out.append('}');
+        }
+        out.append(' ').append(format(value)).append('\n');
+    }
+
+    private static boolean label(StringBuilder out, boolean comma, String key, String value) {
+        if (comma) {
+            out.append(',');
+        }
+        out.append(key).append("=\"")
+            .append(value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+            .append('"');
+        return true;
+    }
+
+    private static String unit(Meter meter) {
+        String unit = meter.getId().getBaseUnit();
+        return unit == null || unit.isBlank() ? "" : "_" + sanitize(unit);
+    }
+
+    static String sanitize(String name) {
+        StringBuilder sanitized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean valid = c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '_' || c == ':' || i > 0 && c >= '0' && c <= '9';
+            sanitized.append(valid ? c : '_');
+        }
+        return sanitized.toString();
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%s", value);
+    }
+}
@@ -0,0 +1,169 @@
+package dev.saul.gijoneventos.metrics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Presupuesto de SQL por petición: abre un SqlStatistics.Scope alrededor de toda la cadena de
+ * filtros (incluida la autenticación) y al terminar
+ *  - publica sql.request.statements, sql.request.rows y sql.request.time por method y uri,
+ *  - avisa en el log y cuenta sql.request.budget.exceeded si el endpoint pasó de su presupuesto
+ *    de sentencias (diagnostics.sql.budget.*), la señal típica de un N+1 nuevo.
+ *
+ * Con diagnostics.sql.headers=true añade X-Sql-Statements, X-Sql-Rows y Server-Timing (db) a la
+ * respuesta. Se escriben al empezar el cuerpo: sin Open Session In View no hay más SQL después.
+ * Las partes asíncronas (SSE, exportaciones en streaming) quedan fuera de la cuenta.
+ */
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private final MeterRegistry registry;
+    private final long defaultBudget;
+    private final Map<String, Long> budgets = new HashMap<>();
+    private final boolean headers;
+
+    /**
+     * @param budgets entradas "METHOD /patrón=máximo", p. ej. "GET /api/v1/events/{id}=2"; el patrón
+     *                es el del @RequestMapping, como el tag uri de http.server.requests
+     */
+    public SqlBudgetFilter(MeterRegistry registry, long defaultBudget, List<String> budgets, boolean headers) {
+        this.registry = registry;
+        this.defaultBudget = defaultBudget;
+        this.headers = headers;
+        for (String entry : budgets) {
+            int equals = entry.lastIndexOf('=');
+            if (equals < 0 || entry.indexOf(' ') < 0) {
+                throw new IllegalArgumentException(
+                    "diagnostics.sql.budget.endpoints: se esperaba \"METHOD /patrón=máximo\" y llegó \"" + entry + "\"");
+            }
+            this.budgets.put(entry.substring(0, equals).trim(), Long.parseLong(entry.substring(equals + 1).trim()));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (SqlStatistics.Scope sql = SqlStatistics.open()) {
+            HttpServletResponse target = headers ? new HeaderWritingResponse(response, sql) : response;
+            try {
+                filterChain.doFilter(request, target);
+            } finally {
+                if (target instanceof HeaderWritingResponse writing) {
+                    writing.writeHeaders();
+                }
+                record(request, sql);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics.Scope sql) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        String method = request.getMethod();
+
+        DistributionSummary.builder("sql.request.statements")
+            .description("Sentencias SQL ejecutadas por petición HTTP")
+            .tags("method", method, "uri", uri)
+            .register(registry)
+            .record(sql.statements());
+        DistributionSummary.builder("sql.request.rows")
+            .description("Filas leídas de la base de datos por petición HTTP")
+            .tags("method", method, "uri", uri)
+            .register(registry)
+            .record(sql.rows());
+        Timer.builder("sql.request.time")
+            .description("Tiempo en la base de datos por petición HTTP")
+            .tags("method", method, "uri", uri)
+            .register(registry)
+            .record(sql.time().toNanos(), TimeUnit.NANOSECONDS);
+
+        long budget = budgets.getOrDefault(method + " " + uri, defaultBudget);
+        if (budget > 0 && sql.statements() > budget) {
+            Counter.builder("sql.request.budget.exceeded")
+                .description("Peticiones que superaron su presupuesto de sentencias SQL")
+                .tags("method", method, "uri", uri)
+                .register(registry)
+                .increment();
+            log.warn("{} {} superó su presupuesto de SQL ({} sentencias como máximo): {}", method, uri, budget, sql);
+        }
+    }
+
+    private static final class HeaderWritingResponse extends HttpServletResponseWrapper {
+
+        private final SqlStatistics.Scope sql;
+        private boolean written;
+
+        HeaderWritingResponse(HttpServletResponse response, SqlStatistics.Scope sql) {
+            super(response);
+            this.sql = sql;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader("X-Sql-Statements", Long.toString(sql.statements()));
+            setHeader("X-Sql-Rows", Long.toString(sql.rows()));
+            addHeader("Server-Timing", String.format(Locale.ROOT, "db;dur=%.1f", sql.time().toNanos() / 1e6));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package dev.saul.gijoneventos.metrics;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Contadores de SQL del hilo actual: sentencias ejecutadas, filas leídas y tiempo en la base de datos.
+ *
+ * Los alimenta StatementCountingDataSource (diagnostics.sql.enabled=true) y solo cuentan dentro de un
+ * Scope abierto en el mismo hilo. SqlBudgetFilter abre uno por petición HTTP; los tests pueden abrir
+ * el suyo alrededor de una llamada para fijar cuántas consultas cuesta:
+ *
+ * <pre>
+ * try (SqlStatistics.Scope sql = SqlStatistics.open()) {
+ *     mockMvc.perform(get("/api/v1/events"));
+ *     assertThat(sql.statements()).isEqualTo(2);
+ * }
+ * </pre>
+ *
+ * Los scopes se pueden anidar: cada sentencia cuenta en todos los abiertos del hilo.
+ */
+public final class SqlStatistics {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private SqlStatistics() {
+    }
+
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static boolean active() {
+        return CURRENT.get() != null;
+    }
+
+    static void statement(long nanos) {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.statements++;
+            scope.nanos += nanos;
+        }
+    }
+
+    static void row() {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.rows++;
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private long statements;
+        private long rows;
+        private long nanos;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        public long statements() {
+            return statements;
+        }
+
+        public long rows() {
+            return rows;
+        }
+
+        public Duration time() {
+            return Duration.ofNanos(nanos);
+        }
+
+        @Override
+        public void close() {
+            // Solo el scope más interno deja el hilo como estaba; no se cierran en otro orden
+            if (CURRENT.get() == this) {
+                if (parent == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(parent);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return statements + " sentencias, " + rows + " filas, " + String.format(Locale.ROOT, "%.1f", nanos / 1e6) + " ms";
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package dev.saul.gijoneventos.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource que mide cada sentencia JDBC para SqlStatistics: ejecuciones (execute*, un lote cuenta
+ * como una), filas recorridas con ResultSet.next() y el tiempo dentro de las llamadas execute*.
+ *
+ * Envuelve conexiones, sentencias y resultados con proxies de java.lang.reflect; si no hay ningún
+ * SqlStatistics.Scope abierto en el hilo solo se paga la indirección, sin medir tiempos.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private static final Class<?>[] CONNECTION = { Connection.class };
+
+    public StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return count(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return count(super.getConnection(username, password));
+    }
+
+    private static Connection count(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), CONNECTION,
+            new Handler(connection) {
+                @Override
+                Object call(Object proxy, Method method, Object[] args) throws Throwable {
+                    Object result = invoke(method, args);
+                    // createStatement, prepareStatement y prepareCall devuelven Statement o una subinterfaz
+                    if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                        return count(statement, method.getReturnType());
+                    }
+                    return result;
+                }
+            });
+    }
+
+    private static Object count(Statement statement, Class<?> type) {
+        return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] { type },
+            new Handler(statement) {
+                @Override
+                Object call(Object proxy, Method method, Object[] args) throws Throwable {
+                    if (!method.getName().startsWith("execute") || !SqlStatistics.active()) {
+                        return rows(invoke(method, args));
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        return rows(invoke(method, args));
+                    } finally {
+                        SqlStatistics.statement(System.nanoTime() - start);
+                    }
+                }
+            });
+    }
+
+    // executeQuery, getResultSet y getGeneratedKeys: se cuentan las filas que se recorren
+    private static Object rows(Object result) {
+        if (!(result instanceof ResultSet resultSet)) {
+            return result;
+        }
+        return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+            new Handler(resultSet) {
+                @Override
+                Object call(Object proxy, Method method, Object[] args) throws Throwable {
+                    Object next = invoke(method, args);
+                    if (Boolean.TRUE.equals(next) && method.getName().equals("next")) {
+                        SqlStatistics.row();
+                    }
+                    return next;
+                }
+            });
+    }
+
+    private abstract static class Handler implements InvocationHandler {
+
+        private final Object target;
+
+        Handler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return call(proxy, method, args);
+            }
+        }
+
+        abstract Object call(Object proxy, Method method, Object[] args) throws Throwable;
+
+        Object invoke(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
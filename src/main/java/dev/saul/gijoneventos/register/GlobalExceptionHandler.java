@@ -1,5 +1,8 @@
 package dev.saul.gijoneventos.register;
 
+import dev.saul.gijoneventos.security.PasswordHashingBusyException;
+
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -13,6 +16,14 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
     }
 
+    // Cola de hashing llena: el cliente debe reintentar pasado un momento
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<String> handlePasswordHashingBusy(PasswordHashingBusyException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException ex) {
         return ResponseEntity.badRequest().body(ex.getMessage());
@@ -1,5 +1,7 @@
 package dev.saul.gijoneventos.register;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,9 +16,16 @@ public class RegisterController {
         this.registerService = registerService;
     }
 
+    // Respuesta inmediata para los nombres nuevos: el filtro de usuarios evita la consulta
+    @GetMapping("/available")
+    public UsernameAvailabilityDTOResponse checkUsername(@RequestParam String username) {
+        return registerService.checkUsername(username);
+    }
+
+    // Asíncrono: el hilo de Tomcat queda libre mientras se calcula el hash
     @PostMapping("")
-    public ResponseEntity<RegisterDTOResponse> registerUser(@RequestBody RegisterDTORequest dto) {
-        RegisterDTOResponse response = registerService.registerUser(dto);
-        return ResponseEntity.status(201).body(response);
+    public CompletableFuture<ResponseEntity<RegisterDTOResponse>> registerUser(@RequestBody RegisterDTORequest dto) {
+        return registerService.registerUser(dto)
+                .thenApply(response -> ResponseEntity.status(201).body(response));
     }
 }
\ No newline at end of file
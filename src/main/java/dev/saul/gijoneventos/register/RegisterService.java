@@ -1,5 +1,9 @@
 package dev.saul.gijoneventos.register;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface RegisterService {
-    RegisterDTOResponse registerUser(RegisterDTORequest dto);
+    CompletableFuture<RegisterDTOResponse> registerUser(RegisterDTORequest dto);
+
+    UsernameAvailabilityDTOResponse checkUsername(String username);
 }
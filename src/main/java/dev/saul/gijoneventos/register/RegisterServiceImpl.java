@@ -1,16 +1,35 @@
 package dev.saul.gijoneventos.register;
 
+import dev.saul.gijoneventos.security.PasswordHashingExecutor;
+import dev.saul.gijoneventos.user.UserCache;
 import dev.saul.gijoneventos.user.UserEntity;
+import dev.saul.gijoneventos.user.UserExistenceFilter;
 import dev.saul.gijoneventos.user.UserRepository;
 import dev.saul.gijoneventos.role.RoleEntity;
 import dev.saul.gijoneventos.role.RoleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.ConstraintViolationException.ConstraintKind;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-
-import java.util.Optional;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alta de usuarios en tres etapas, cada una medida en register.pipeline (tag stage):
+ *  - validate: datos, duplicados evidentes (UserExistenceFilter: sin consulta para nombres nuevos)
+ *    y rol por defecto, en el hilo de la petición;
+ *  - queue + hash: espera en la cola y BCrypt, en el pool de password-hashing (429 si está lleno);
+ *  - insert: un único INSERT en applicationTaskExecutor. Los duplicados los detectan las
+ *    restricciones únicas de username y email, sin consultar antes.
+ */
 @Service
 public class RegisterServiceImpl implements RegisterService {
 
@@ -18,20 +37,59 @@ public class RegisterServiceImpl implements RegisterService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final RegisterValidator validator;
+    private final UserCache userCache;
+    private final UserExistenceFilter existenceFilter;
+    private final PasswordHashingExecutor passwordHashing;
+    private final Executor insertExecutor;
+    private final Timer validateTimer;
+    private final Timer queueTimer;
+    private final Timer hashTimer;
+    private final Timer insertTimer;
 
     public RegisterServiceImpl(UserRepository userRepository,
                                RoleRepository roleRepository,
                                PasswordEncoder passwordEncoder,
-                               RegisterValidator validator) {
+                               RegisterValidator validator,
+                               UserCache userCache,
+                               UserExistenceFilter existenceFilter,
+                               PasswordHashingExecutor passwordHashing,
+                               @Qualifier("applicationTaskExecutor") Executor insertExecutor,
+                               MeterRegistry registry) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.validator = validator;
+        this.userCache = userCache;
+        this.existenceFilter = existenceFilter;
+        this.passwordHashing = passwordHashing;
+        this.insertExecutor = insertExecutor;
+        this.validateTimer = stageTimer(registry, "validate");
+        this.queueTimer = stageTimer(registry, "queue");
+        this.hashTimer = stageTimer(registry, "hash");
+        this.insertTimer = stageTimer(registry, "insert");
     }
 
     @Override
-    public RegisterDTOResponse registerUser(RegisterDTORequest dto) {
+    public CompletableFuture<RegisterDTOResponse> registerUser(RegisterDTORequest dto) {
+        RoleEntity clientRole = validateTimer.record(() -> validate(dto));
+
+        long queuedAt = System.nanoTime();
+        return passwordHashing.submit(() -> {
+                    queueTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                    return hashTimer.record(() -> passwordEncoder.encode(dto.password()));
+                })
+                .thenApplyAsync(hashedPassword -> insertTimer.record(() -> insert(dto, hashedPassword, clientRole)), insertExecutor);
+    }
 
+    @Override
+    public UsernameAvailabilityDTOResponse checkUsername(String username) {
+        if (username == null || username.isBlank()) {
+            throw new IllegalArgumentException("El username es obligatorio");
+        }
+        return new UsernameAvailabilityDTOResponse(username, !existenceFilter.usernameTaken(username));
+    }
+
+    private RoleEntity validate(RegisterDTORequest dto) {
         // Validar datos básicos (ej: email, teléfono, etc.)
         validator.validate(dto);
 
@@ -40,24 +98,33 @@ public class RegisterServiceImpl implements RegisterService {
             throw new IllegalArgumentException("Las contraseñas no coinciden");
         }
 
-        // Comprobar si el usuario ya existe
-        Optional<UserEntity> existingUser = userRepository.findByUsername(dto.username());
-        if (existingUser.isPresent()) {
-            throw new UserAlreadyExistsException(dto.username());
+        // Duplicado ya registrado: se rechaza antes de gastar un hash
+        if (existenceFilter.taken(dto.username(), dto.email())) {
+            throw new UserAlreadyExistsException(dto.username(), dto.email());
         }
 
-        // Rol por defecto
-        RoleEntity clientRole = roleRepository.findByName("ROLE_USER")
+        // Rol por defecto (caché de consultas: no llega a la BD)
+        return roleRepository.findByName("ROLE_USER")
                 .orElseThrow(() -> new RuntimeException("Rol USER no encontrado"));
+    }
 
-        // Encriptar password
-        String hashedPassword = passwordEncoder.encode(dto.password());
-
+    private RegisterDTOResponse insert(RegisterDTORequest dto, String hashedPassword, RoleEntity clientRole) {
         // Mapear DTO → UserEntity
         UserEntity newUser = RegisterMapper.dtoToEntity(dto, hashedPassword, clientRole);
 
-        // Guardar en BD
-        UserEntity savedUser = userRepository.save(newUser);
+        // Guardar en BD: si el username o el email ya existen, falla la restricción única
+        UserEntity savedUser;
+        try {
+            savedUser = userRepository.save(newUser);
+        } catch (DataIntegrityViolationException e) {
+            // Solo las violaciones de unicidad son duplicados; un NOT NULL sigue siendo un error de datos
+            if (e.getCause() instanceof ConstraintViolationException violation && violation.getKind() == ConstraintKind.UNIQUE) {
+                throw new UserAlreadyExistsException(dto.username(), dto.email(), e);
+            }
+            throw e;
+        }
+        userCache.invalidate(savedUser);
+        existenceFilter.add(savedUser);
 
         // Devolver respuesta (incluyendo el id generado)
         return RegisterDTOResponse.builder()
@@ -68,4 +135,11 @@ public class RegisterServiceImpl implements RegisterService {
                 .phone(savedUser.getPhone())
                 .build();
     }
+
+    private static Timer stageTimer(MeterRegistry registry, String stage) {
+        return Timer.builder("register.pipeline")
+                .description("Duración de cada etapa del alta de usuarios")
+                .tag("stage", stage)
+                .register(registry);
+    }
 }
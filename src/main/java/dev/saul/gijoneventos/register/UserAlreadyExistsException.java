@@ -4,4 +4,12 @@ public class UserAlreadyExistsException extends RuntimeException {
     public UserAlreadyExistsException(String username) {
         super("El usuario '" + username + "' ya existe.");
     }
-}
\ No newline at end of file
+
+    public UserAlreadyExistsException(String username, String email) {
+        this(username, email, null);
+    }
+
+    public UserAlreadyExistsException(String username, String email, Throwable cause) {
+        super("Ya existe un usuario con el nombre '" + username + "' o el email '" + email + "'.", cause);
+    }
+}
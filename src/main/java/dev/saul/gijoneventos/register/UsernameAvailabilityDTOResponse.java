@@ -0,0 +1,4 @@
+package dev.saul.gijoneventos.register;
+
+public record UsernameAvailabilityDTOResponse(String username, boolean available) {
+}
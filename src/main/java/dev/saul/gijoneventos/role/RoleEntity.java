@@ -6,6 +6,11 @@ import dev.saul.gijoneventos.user.UserEntity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -16,12 +21,19 @@ import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import lombok.ToString;
 
 @Entity
 @Table(name = "roles")
+// Los roles no cambian nunca en ejecución: caché de segundo nivel de solo lectura. @Immutable hace que
+// Hibernate tampoco intente actualizarlos (y que READ_ONLY no avise de entidad mutable al arrancar)
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "roles")
 @Data
 //
 @NoArgsConstructor
@@ -37,7 +49,11 @@ public class RoleEntity {
      @Column(unique = true, nullable = false)  
     private String name;
 
+    // Fuera de equals/hashCode/toString: @Data los recorrería e inicializaría la colección
+    // LAZY, cargando todos los usuarios del rol cada vez que se cargan los roles de un usuario
     @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToMany(mappedBy = "roles")
     private Set<UserEntity> users;
 
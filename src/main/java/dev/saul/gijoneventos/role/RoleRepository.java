@@ -2,9 +2,15 @@ package dev.saul.gijoneventos.role;
 
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import jakarta.persistence.QueryHint;
 
 public interface RoleRepository extends JpaRepository<RoleEntity, Long> {
-    
+
+    // En la caché de consultas: cada registro pide ROLE_USER
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     public Optional<RoleEntity> findByName(String name);
-}
\ No newline at end of file
+}
@@ -0,0 +1,35 @@
+package dev.saul.gijoneventos.security;
+
+import java.util.Collection;
+
+/**
+ * Principal ligero que reciben los controladores vía @CurrentUser: id, datos de presentación
+ * y los roles como máscara de bits, sin tocar la BD ni recorrer authorities en cada petición.
+ */
+public record AuthenticatedUser(Long id, String username, String fullName, int roles) {
+
+    public static final int ROLE_ADMIN = 1;
+    public static final int ROLE_USER = 1 << 1;
+    public static final int ROLE_CLIENT = 1 << 2;
+
+    public boolean isAdmin() {
+        return (roles & ROLE_ADMIN) != 0;
+    }
+
+    public boolean hasRole(int role) {
+        return (roles & role) != 0;
+    }
+
+    public static int roleMask(Collection<String> roleNames) {
+        int mask = 0;
+        for (String name : roleNames) {
+            mask |= switch (name) {
+                case "ROLE_ADMIN" -> ROLE_ADMIN;
+                case "ROLE_USER" -> ROLE_USER;
+                case "ROLE_CLIENT" -> ROLE_CLIENT;
+                default -> 0;
+            };
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,17 @@
+package dev.saul.gijoneventos.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Inyecta el AuthenticatedUser de la petición en un parámetro del controlador.
+ * Con required = false el parámetro es null para peticiones anónimas.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+
+    boolean required() default true;
+}
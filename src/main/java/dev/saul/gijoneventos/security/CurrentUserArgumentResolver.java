@@ -0,0 +1,57 @@
+package dev.saul.gijoneventos.security;
+
+import java.util.List;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import dev.saul.gijoneventos.config.JwtConfiguration;
+
+/**
+ * Resuelve @CurrentUser AuthenticatedUser a partir del principal ya autenticado:
+ * SecurityUser (Basic) o los claims del JWT (Bearer). Nunca consulta la BD.
+ */
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+            && AuthenticatedUser.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        AuthenticatedUser user = authentication == null || authentication instanceof AnonymousAuthenticationToken
+            ? null
+            : toAuthenticatedUser(authentication.getPrincipal());
+        if (user == null && parameter.getParameterAnnotation(CurrentUser.class).required()) {
+            throw new AuthenticationCredentialsNotFoundException("Usuario no autenticado");
+        }
+        return user;
+    }
+
+    private AuthenticatedUser toAuthenticatedUser(Object principal) {
+        if (principal instanceof SecurityUser securityUser) {
+            return securityUser.getAuthenticatedUser();
+        }
+        if (principal instanceof Jwt jwt) {
+            List<String> roles = jwt.getClaimAsStringList(JwtConfiguration.ROLES_CLAIM);
+            return new AuthenticatedUser(
+                ((Number) jwt.getClaim(JwtConfiguration.USER_ID_CLAIM)).longValue(),
+                jwt.getSubject(),
+                jwt.getClaimAsString(JwtConfiguration.NAME_CLAIM),
+                AuthenticatedUser.roleMask(roles == null ? List.of() : roles));
+        }
+        return null;
+    }
+}
@@ -1,6 +1,6 @@
 package dev.saul.gijoneventos.security;
 
-import dev.saul.gijoneventos.user.UserRepository;
+import dev.saul.gijoneventos.user.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -9,16 +9,16 @@ import org.springframework.stereotype.Service;
 @Service
 public class JpaUserDetailsService implements UserDetailsService {
 
-    private UserRepository userRepository;
+    private UserCache userCache;
 
-    public JpaUserDetailsService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public JpaUserDetailsService(UserCache userCache) {
+        this.userCache = userCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
-        return userRepository.findByUsername(username)
+        return userCache.findByUsername(username)
                 .map(SecurityUser::new)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
@@ -0,0 +1,58 @@
+package dev.saul.gijoneventos.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+
+import com.nimbusds.jose.jwk.JWKSet;
+
+import dev.saul.gijoneventos.config.JwtConfiguration;
+
+/**
+ * Emite los JWT firmados localmente que devuelve /login. El resto de endpoints los validan
+ * con la clave pública, sin consultar la BD ni ejecutar BCrypt.
+ */
+@Service
+public class JwtTokenService {
+
+    private final JwtEncoder jwtEncoder;
+    private final String signingKeyId;
+
+    @Value("${jwt.issuer:gijoneventos}")
+    String issuer;
+
+    @Value("${jwt.expiry:PT1H}")
+    Duration expiry;
+
+    public JwtTokenService(JwtEncoder jwtEncoder, JWKSet jwkSet) {
+        this.jwtEncoder = jwtEncoder;
+        this.signingKeyId = jwkSet.getKeys().get(0).getKeyID();
+    }
+
+    public IssuedToken issue(Long userId, String username, String fullName, List<String> roles) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+            .issuer(issuer)
+            .subject(username)
+            .issuedAt(now)
+            .expiresAt(now.plus(expiry))
+            .claim(JwtConfiguration.USER_ID_CLAIM, userId)
+            .claim(JwtConfiguration.NAME_CLAIM, fullName)
+            .claim(JwtConfiguration.ROLES_CLAIM, roles)
+            .build();
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.RS256).keyId(signingKeyId).build();
+        String token = jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+        return new IssuedToken(token, expiry.toSeconds());
+    }
+
+    public record IssuedToken(String value, long expiresIn) {
+    }
+}
@@ -0,0 +1,7 @@
+package dev.saul.gijoneventos.security;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(int queued) {
+        super("Demasiadas solicitudes en curso (" + queued + " en cola), inténtalo de nuevo en unos segundos.");
+    }
+}
@@ -0,0 +1,61 @@
+package dev.saul.gijoneventos.security;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pool propio para el hashing de contraseñas (BCrypt), fuera de los hilos de Tomcat.
+ *
+ * password-hashing.threads hilos (0 = uno por CPU: BCrypt es cálculo puro) y una cola acotada de
+ * password-hashing.queue-capacity tareas. Con la cola llena no se espera: submit lanza
+ * PasswordHashingBusyException (429 en la API) y el cliente reintenta más tarde, en vez de apilar
+ * peticiones que acabarían expirando. Métricas: executor.* (name=password-hashing) y
+ * password.hashing.rejected.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(MeterRegistry registry,
+                                   @Value("${password-hashing.threads:0}") int threads,
+                                   @Value("${password-hashing.queue-capacity:64}") int queueCapacity) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("password-hashing-", 0).daemon().factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+        this.rejected = Counter.builder("password.hashing.rejected")
+            .description("Hashes rechazados con la cola de password-hashing llena")
+            .register(registry);
+        new ExecutorServiceMetrics(executor, "password-hashing", List.<Tag>of()).bindTo(registry);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException(executor.getQueue().size());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+}
@@ -1,43 +1,40 @@
 package dev.saul.gijoneventos.security;
 
-import java.util.ArrayList;
 import java.util.Collection;
 
-import dev.saul.gijoneventos.role.RoleEntity;
-import dev.saul.gijoneventos.user.UserEntity;
+import dev.saul.gijoneventos.user.UserSnapshot;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 public class SecurityUser implements UserDetails {
 
-    private UserEntity user;
+    private final UserSnapshot user;
+    private final AuthenticatedUser authenticatedUser;
 
-    public SecurityUser(UserEntity user) {
+    public SecurityUser(UserSnapshot user) {
         this.user = user;
+        this.authenticatedUser = new AuthenticatedUser(user.id(), user.username(), user.fullName(),
+            AuthenticatedUser.roleMask(user.authorities().stream().map(GrantedAuthority::getAuthority).toList()));
+    }
+
+    public AuthenticatedUser getAuthenticatedUser() {
+        return authenticatedUser;
     }
 
     @Override
     public String getUsername() {
-        return user.getUsername();
+        return user.username();
     }
 
     @Override
     public String getPassword() {
-        return user.getPassword();
+        return user.password();
     }
 
+    // Las authorities vienen precalculadas en el snapshot cacheado
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        Collection<GrantedAuthority> authorities = new ArrayList<GrantedAuthority>();
-
-        for (RoleEntity role : user.getRoles()) {
-            System.out.println("User role : " + role.getName());
-            SimpleGrantedAuthority authority = new SimpleGrantedAuthority(role.getName());
-            authorities.add(authority);
-        }
-
-        return authorities;
+        return user.authorities();
     }
 
     @Override
@@ -0,0 +1,59 @@
+package dev.saul.gijoneventos.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * PasswordEncoder que mide cada encode/matches en el timer auth.password.hash
+ * (operation=encode|matches, result=match|mismatch en matches). Con BCrypt es el paso más caro
+ * de Basic y del registro, así que su latencia indica si el factor de coste sigue siendo razonable.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encode;
+    private final Timer match;
+    private final Timer mismatch;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.encode = timer(registry, "encode", "none");
+        this.match = timer(registry, "matches", "match");
+        this.mismatch = timer(registry, "matches", "mismatch");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            encode.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        (matches ? match : mismatch).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer timer(MeterRegistry registry, String operation, String result) {
+        return Timer.builder("auth.password.hash")
+            .description("Tiempo de hash/verificación de contraseñas (BCrypt)")
+            .tag("operation", operation)
+            .tag("result", result)
+            .register(registry);
+    }
+}
@@ -0,0 +1,168 @@
+package dev.saul.gijoneventos.seed;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Datos sintéticos para el perfil h2 (pruebas de carga y desarrollo sin MySQL).
+ *
+ * Con seed.enabled=true y la BD vacía crea los roles, los usuarios de desarrollo daisy (ADMIN) y
+ * donald (USER) de data.sql, seed.users usuarios más (user1..userN, todos con seed.password),
+ * seed.events eventos repartidos entre -30 y +90 días alrededor de Gijón, y hasta seed.attendances
+ * inscripciones sin superar el aforo. Con la misma seed.random-seed se generan siempre los mismos datos.
+ *
+ * Se ejecuta antes que el resto de ApplicationRunner y de los índices en memoria, que se construyen
+ * en ApplicationReadyEvent. Todo va por JDBC en lotes con identificadores explícitos.
+ */
+@Component
+@Profile("h2")
+@ConditionalOnProperty(name = "seed.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DataSeeder implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSeeder.class);
+
+    private static final int BATCH_SIZE = 1000;
+    // Usuarios fijos de data.sql; los sintéticos empiezan detrás
+    private static final int DEV_USERS = 2;
+    private static final double GIJON_LAT = 43.5453, GIJON_LON = -5.6619;
+
+    private static final String[] KINDS = { "Concierto", "Mercado", "Charla", "Taller", "Ruta", "Festival", "Exposición", "Partido" };
+    private static final String[] PLACES = { "Playa de San Lorenzo", "Plaza Mayor", "Parque de Isabel la Católica",
+        "Laboral Ciudad de la Cultura", "Puerto Deportivo", "Cimavilla", "Parque de Begoña", "Muséu del Pueblu d'Asturies" };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${seed.users:1000}")
+    int users = 1000;
+
+    @Value("${seed.events:500}")
+    int events = 500;
+
+    @Value("${seed.attendances:20000}")
+    int attendances = 20000;
+
+    @Value("${seed.password:password}")
+    String password = "password";
+
+    @Value("${seed.random-seed:42}")
+    long randomSeed = 42;
+
+    public DataSeeder(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class);
+        if (existing != null && existing > 0) {
+            log.info("Semilla omitida: la tabla users ya tiene {} filas", existing);
+            return;
+        }
+        long start = System.nanoTime();
+        Random random = new Random(randomSeed);
+        // Un único hash para todos: BCrypt por usuario haría la siembra de minutos
+        String hash = passwordEncoder.encode(password);
+
+        jdbcTemplate.update("INSERT INTO roles (id_role, name) VALUES (1, 'ROLE_ADMIN'), (2, 'ROLE_USER')");
+        seedUsers(hash);
+        int[] capacities = seedEvents(random);
+        int seeded = seedAttendances(random, capacities);
+
+        jdbcTemplate.update("ALTER TABLE roles ALTER COLUMN id_role RESTART WITH 3");
+        jdbcTemplate.update("ALTER TABLE users ALTER COLUMN id_user RESTART WITH " + (DEV_USERS + users + 1));
+        jdbcTemplate.update("ALTER TABLE events ALTER COLUMN id_event RESTART WITH " + (events + 1));
+        log.info("Semilla: {} usuarios, {} eventos y {} inscripciones en {} ms",
+            DEV_USERS + users, events, seeded, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void seedUsers(String hash) {
+        List<Object[]> rows = new ArrayList<>();
+        List<Object[]> roles = new ArrayList<>();
+        rows.add(new Object[] { 1L, "Daisy User", "daisy", "daisy@example.com", "123456789", hash });
+        rows.add(new Object[] { 2L, "Donald User", "donald", "donald@example.com", "987654321", hash });
+        roles.add(new Object[] { 1L, 1L });
+        roles.add(new Object[] { 2L, 2L });
+        for (long id = DEV_USERS + 1; id <= DEV_USERS + users; id++) {
+            long n = id - DEV_USERS;
+            rows.add(new Object[] { id, "User " + n, "user" + n, "user" + n + "@example.com", String.format("6%08d", n), hash });
+            roles.add(new Object[] { id, 2L });
+        }
+        batch("INSERT INTO users (id_user, full_name, username, email, phone, password) VALUES (?, ?, ?, ?, ?, ?)", rows);
+        batch("INSERT INTO roles_users (user_id, role_id) VALUES (?, ?)", roles);
+    }
+
+    // Devuelve el aforo de cada evento (índice = id - 1)
+    private int[] seedEvents(Random random) {
+        int[] capacities = new int[events];
+        List<Object[]> rows = new ArrayList<>();
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        for (int i = 0; i < events; i++) {
+            String kind = KINDS[random.nextInt(KINDS.length)];
+            String place = PLACES[random.nextInt(PLACES.length)];
+            LocalDateTime date = today.plusDays(random.nextInt(120) - 30).plusHours(9 + random.nextInt(13));
+            capacities[i] = 20 + random.nextInt(481);
+            long organizer = 1 + random.nextInt(DEV_USERS + users);
+            rows.add(new Object[] { i + 1L, kind + " en " + place + " #" + (i + 1),
+                kind + " abierto a todo el público en " + place + ", Gijón.", Timestamp.valueOf(date), place + ", Gijón",
+                organizer, capacities[i],
+                GIJON_LAT + random.nextGaussian() * 0.02, GIJON_LON + random.nextGaussian() * 0.03 });
+        }
+        batch("""
+            INSERT INTO events (id_event, title, description, date, location, organizer_id, max_attendees, latitude, longitude,
+                                attendee_count, ticket_drop)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, FALSE)""", rows);
+        return capacities;
+    }
+
+    private int seedAttendances(Random random, int[] capacities) {
+        if (events == 0) {
+            return 0;
+        }
+        int[] taken = new int[events];
+        Set<Long> pairs = new HashSet<>();
+        List<Object[]> rows = new ArrayList<>();
+        // Intentos acotados: con aforos casi llenos no se puede colocar todo lo pedido
+        for (long attempt = 0; rows.size() < attendances && attempt < attendances * 4L; attempt++) {
+            int event = random.nextInt(events);
+            long user = 1 + random.nextInt(DEV_USERS + users);
+            if (taken[event] < capacities[event] && pairs.add((event + 1L) << 32 | user)) {
+                taken[event]++;
+                rows.add(new Object[] { event + 1L, user });
+            }
+        }
+        batch("INSERT INTO event_attendees (event_id, user_id) VALUES (?, ?)", rows);
+        jdbcTemplate.update(
+            "UPDATE events SET attendee_count = (SELECT COUNT(*) FROM event_attendees a WHERE a.event_id = events.id_event)");
+        return rows.size();
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package dev.saul.gijoneventos.user;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché en memoria de usuarios por username y por id, acotada en tamaño y con TTL.
+ *
+ * Guarda UserSnapshot inmutables, así que un mismo objeto se comparte entre peticiones.
+ * Quien escriba en la tabla users debe llamar a invalidate(...) después de guardar.
+ * Los aciertos/fallos se publican como métricas cache.* (users.by-username, users.by-id).
+ */
+@Component
+public class UserCache implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserSnapshot> byUsername;
+    private final Cache<Long, UserSnapshot> byId;
+    // Sube en cada invalidate(): una carga que empezó antes no puede dejar en caché la fila anterior
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${users.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${users.cache.ttl:PT5M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.byUsername = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).recordStats().build();
+        this.byId = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).recordStats().build();
+    }
+
+    // La SELECT se hace fuera de Cache.get(key, loader): ese cargador corre dentro de un compute()
+    // del mapa y, con hilos virtuales, fijaría el hilo portador mientras espera a la BD (JDK 21).
+    // Dos fallos simultáneos de la misma clave pueden cargar dos veces; el resultado es el mismo.
+    public Optional<UserSnapshot> findByUsername(String username) {
+        UserSnapshot cached = byUsername.getIfPresent(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadedAt = generation.get();
+        // Si el usuario no existe no se cachea nada
+        return userRepository.findByUsername(username).map(user -> snapshot(user, loadedAt));
+    }
+
+    public Optional<UserSnapshot> findById(Long id) {
+        UserSnapshot cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadedAt = generation.get();
+        return userRepository.findById(id).map(user -> snapshot(user, loadedAt));
+    }
+
+    public void invalidate(UserEntity user) {
+        generation.incrementAndGet();
+        if (user.getId() != null) {
+            UserSnapshot previous = byId.getIfPresent(user.getId());
+            if (previous != null) {
+                byUsername.invalidate(previous.username()); // por si ha cambiado el username
+            }
+            byId.invalidate(user.getId());
+        }
+        if (user.getUsername() != null) {
+            byUsername.invalidate(user.getUsername());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byUsername, "users.by-username");
+        CaffeineCacheMetrics.monitor(registry, byId, "users.by-id");
+    }
+
+    // Cada carga alimenta los dos índices para no repetir la SELECT.
+    // Se guarda y después se comprueba la generación: si hubo un invalidate() desde que empezó la
+    // carga, la fila leída puede ser la anterior y se retira. Si el invalidate() llega después de
+    // la comprobación, es él quien la borra. En ningún orden queda la fila vieja hasta el TTL.
+    private UserSnapshot snapshot(UserEntity user, long loadedAt) {
+        UserSnapshot snapshot = UserSnapshot.of(user);
+        byId.put(snapshot.id(), snapshot);
+        byUsername.put(snapshot.username(), snapshot);
+        if (generation.get() != loadedAt) {
+            byId.asMap().remove(snapshot.id(), snapshot);
+            byUsername.asMap().remove(snapshot.username(), snapshot);
+        }
+        return snapshot;
+    }
+}
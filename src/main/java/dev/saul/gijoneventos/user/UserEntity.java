@@ -4,12 +4,16 @@ import dev.saul.gijoneventos.event.EventEntity;
 import dev.saul.gijoneventos.role.RoleEntity;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -40,7 +44,9 @@ public class UserEntity {
     @Transient
     private String confirmPassword;
 
+    // Colección en caché (ids de rol); los roles salen de la región "roles" sin tocar la BD
     @ManyToMany(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users.roles")
     @JoinTable(
         name = "roles_users",
         joinColumns = @JoinColumn(name = "user_id"),
@@ -0,0 +1,240 @@
+package dev.saul.gijoneventos.user;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Filtro de Bloom en memoria sobre los usernames y emails existentes.
+ *
+ * Un "no está" es seguro y se responde sin ir a la BD; un "puede estar" se confirma con una consulta.
+ * Las claves se guardan en minúsculas, así que el filtro vale también con colaciones que no
+ * distinguen mayúsculas (solo añade falsos positivos, nunca falsos negativos).
+ *
+ * Se reconstruye al arrancar recorriendo la tabla users por bloques de id, dimensionado para
+ * users.existence-filter.expected-insertions claves (o el doble de las que haya) con una tasa de
+ * falsos positivos de users.existence-filter.false-positive-rate. Quien cree usuarios debe llamar a
+ * add(...) después de guardar; los borrados no se quitan (solo dejan falsos positivos). Los usuarios
+ * insertados por otra vía (SQL directo, otra instancia) no los ve: el alta sigue protegida por las
+ * restricciones únicas. Métricas: users.existence-filter.*.
+ */
+@Component
+public class UserExistenceFilter implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(UserExistenceFilter.class);
+
+    private static final int REBUILD_CHUNK = 5000;
+
+    private final UserRepository userRepository;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    // null hasta la primera reconstrucción: mientras tanto todo se consulta en la BD
+    private volatile BloomFilter filter;
+    // Filtro en construcción: las altas durante la reconstrucción van a los dos
+    private volatile BloomFilter building;
+    private Counter absent;
+    private Counter maybe;
+    private Counter falsePositives;
+
+    public UserExistenceFilter(UserRepository userRepository,
+                               @Value("${users.existence-filter.expected-insertions:100000}") long expectedInsertions,
+                               @Value("${users.existence-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("users.existence-filter.false-positive-rate debe estar entre 0 y 1");
+        }
+        this.userRepository = userRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        long users = userRepository.count();
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedInsertions, 2 * users), falsePositiveRate);
+        building = rebuilt;
+        Long afterId = 0L;
+        List<UserKeys> chunk;
+        do {
+            chunk = userRepository.findKeysAfterId(afterId, Limit.of(REBUILD_CHUNK));
+            chunk.forEach(user -> add(rebuilt, user.username(), user.email()));
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).id();
+            }
+        } while (chunk.size() == REBUILD_CHUNK);
+        filter = rebuilt;
+        building = null;
+        log.info("Filtro de usuarios reconstruido: {} claves, {} bits, {} funciones hash en {} ms",
+            rebuilt.entries.get(), rebuilt.bitSize, rebuilt.hashes, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void add(UserEntity user) {
+        BloomFilter current = filter;
+        if (current != null) {
+            add(current, user.getUsername(), user.getEmail());
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            add(next, user.getUsername(), user.getEmail());
+        }
+    }
+
+    public boolean usernameTaken(String username) {
+        if (!mightContain(usernameKey(username))) {
+            absent.increment();
+            return false;
+        }
+        maybe.increment();
+        return confirm(userRepository.existsByUsername(username));
+    }
+
+    // Para el alta: una sola consulta si el username o el email puede estar ya registrado
+    public boolean taken(String username, String email) {
+        if (!mightContain(usernameKey(username)) && (email == null || !mightContain(emailKey(email)))) {
+            absent.increment();
+            return false;
+        }
+        maybe.increment();
+        return confirm(userRepository.existsByUsernameOrEmail(username, email));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        absent = Counter.builder("users.existence-filter.lookups").tag("result", "absent")
+            .description("Comprobaciones resueltas por el filtro sin ir a la BD").register(registry);
+        maybe = Counter.builder("users.existence-filter.lookups").tag("result", "maybe")
+            .description("Comprobaciones que el filtro no descarta y se confirman en la BD").register(registry);
+        falsePositives = Counter.builder("users.existence-filter.false-positives")
+            .description("Comprobaciones que el filtro no descartó y la BD dio como libres").register(registry);
+        Gauge.builder("users.existence-filter.false-positive-rate", () -> falsePositiveRate)
+            .description("Tasa de falsos positivos configurada").register(registry);
+        Gauge.builder("users.existence-filter.false-positive-rate.estimated", this,
+                f -> f.filter == null ? 1 : f.filter.estimatedFalsePositiveRate())
+            .description("Tasa de falsos positivos esperada con los bits ya puestos").register(registry);
+        Gauge.builder("users.existence-filter.entries", this, f -> f.filter == null ? 0 : f.filter.entries.get())
+            .description("Claves (usernames y emails) añadidas al filtro").register(registry);
+    }
+
+    private boolean mightContain(String key) {
+        BloomFilter current = filter;
+        return current == null || current.mightContain(key);
+    }
+
+    private boolean confirm(boolean exists) {
+        if (!exists && filter != null) {
+            falsePositives.increment();
+        }
+        return exists;
+    }
+
+    private static void add(BloomFilter target, String username, String email) {
+        if (username != null) {
+            target.put(usernameKey(username));
+        }
+        if (email != null) {
+            target.put(emailKey(email));
+        }
+    }
+
+    private static String usernameKey(String username) {
+        return "u:" + username.toLowerCase(Locale.ROOT);
+    }
+
+    private static String emailKey(String email) {
+        return "e:" + email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Bits en un AtomicLongArray (escrituras concurrentes sin bloqueo) y k posiciones por clave
+     * sacadas de dos hashes de 64 bits (h1 + i·h2, Kirsch-Mitzenmacher).
+     */
+    static final class BloomFilter {
+
+        final long bitSize;
+        final int hashes;
+        final AtomicLong entries = new AtomicLong();
+        private final AtomicLongArray words;
+        private final AtomicLong bitsSet = new AtomicLong();
+
+        BloomFilter(long expectedInsertions, double falsePositiveRate) {
+            long n = Math.max(1, expectedInsertions);
+            // m = -n·ln(p) / ln(2)², k = m/n·ln(2)
+            long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.max(1, (bits + 63) / 64));
+            this.bitSize = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+        }
+
+        void put(String key) {
+            long hash = fnv1a(key);
+            long h1 = mix(hash);
+            long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                set(Math.floorMod(h1 + i * h2, bitSize));
+            }
+            entries.incrementAndGet();
+        }
+
+        boolean mightContain(String key) {
+            long hash = fnv1a(key);
+            long h1 = mix(hash);
+            long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitSize);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Probabilidad de que k bits al azar ya estén a 1
+        double estimatedFalsePositiveRate() {
+            return Math.pow((double) bitsSet.get() / bitSize, hashes);
+        }
+
+        private void set(long bit) {
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word;
+            do {
+                word = words.get(index);
+                if ((word & mask) != 0) {
+                    return;
+                }
+            } while (!words.compareAndSet(index, word, word | mask));
+            bitsSet.incrementAndGet();
+        }
+
+        private static long fnv1a(String key) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xff;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+
+        // Finalizador de SplitMix64: reparte bien los bits de FNV
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package dev.saul.gijoneventos.user;
+
+/**
+ * Proyección mínima de un usuario para reconstruir UserExistenceFilter: solo las claves únicas.
+ */
+public record UserKeys(Long id, String username, String email) {
+}
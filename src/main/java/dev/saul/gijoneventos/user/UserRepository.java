@@ -1,11 +1,23 @@
 package dev.saul.gijoneventos.user;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
     public Optional<UserEntity> findByUsername(String username);
 
-}
\ No newline at end of file
+    boolean existsByUsername(String username);
+
+    boolean existsByUsernameOrEmail(String username, String email);
+
+    // Recorrido completo por bloques de id para reconstruir UserExistenceFilter
+    @Query("SELECT new dev.saul.gijoneventos.user.UserKeys(u.id, u.username, u.email) FROM UserEntity u "
+        + "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserKeys> findKeysAfterId(Long afterId, Limit limit);
+
+}
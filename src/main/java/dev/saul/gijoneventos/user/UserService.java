@@ -2,6 +2,7 @@ package dev.saul.gijoneventos.user;
 
 import dev.saul.gijoneventos.role.RoleEntity;
 import dev.saul.gijoneventos.role.RoleRepository; // Necesitarás este repositorio
+import dev.saul.gijoneventos.security.PasswordHashingExecutor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.util.Set;
@@ -12,16 +13,26 @@ public class UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository; // Nuevo
     private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final PasswordHashingExecutor passwordHashing;
+    private final UserExistenceFilter existenceFilter;
 
-    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder,
+                       UserCache userCache, PasswordHashingExecutor passwordHashing, UserExistenceFilter existenceFilter) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
+        this.passwordHashing = passwordHashing;
+        this.existenceFilter = existenceFilter;
     }
 
     public UserEntity save(UserEntity user) {
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        user.setPassword(hash(user.getPassword()));
+        UserEntity saved = userRepository.save(user);
+        userCache.invalidate(saved);
+        existenceFilter.add(saved);
+        return saved;
     }
 
     public UserEntity findByUsername(String username) {
@@ -39,11 +50,19 @@ public class UserService {
             .username(registerData.getUsername())
             .email(registerData.getEmail())
             .phone(registerData.getPhone())
-            .password(passwordEncoder.encode(registerData.getPassword()))
+            .password(hash(registerData.getPassword()))
             .roles(Set.of(userRole)) // Asignar rol existente
             .build();
         
-        return userRepository.save(user);
+        UserEntity saved = userRepository.save(user);
+        userCache.invalidate(saved);
+        existenceFilter.add(saved);
+        return saved;
+    }
+
+    // BCrypt pasa por el mismo pool acotado que el registro (PasswordHashingBusyException si está lleno)
+    private String hash(String rawPassword) {
+        return passwordHashing.submit(() -> passwordEncoder.encode(rawPassword)).join();
     }
 }
 
@@ -0,0 +1,38 @@
+package dev.saul.gijoneventos.user;
+
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import dev.saul.gijoneventos.role.RoleEntity;
+
+/**
+ * Copia inmutable de un usuario para UserCache: sin asociaciones JPA y con las authorities
+ * ya calculadas, se puede compartir entre hilos y peticiones sin tocar la BD.
+ */
+public record UserSnapshot(
+        Long id,
+        String username,
+        String fullName,
+        String email,
+        String phone,
+        String password,    // hash BCrypt, necesario para Basic
+        List<GrantedAuthority> authorities
+) {
+
+    public UserSnapshot {
+        authorities = List.copyOf(authorities);
+    }
+
+    public static UserSnapshot of(UserEntity user) {
+        List<GrantedAuthority> authorities = user.getRoles() == null ? List.of()
+            : user.getRoles().stream()
+                .map(RoleEntity::getName)
+                .sorted()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+        return new UserSnapshot(user.getId(), user.getUsername(), user.getFullName(), user.getEmail(),
+            user.getPhone(), user.getPassword(), authorities);
+    }
+}
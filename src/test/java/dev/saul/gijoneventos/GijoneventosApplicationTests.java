@@ -1,10 +1,8 @@
 package dev.saul.gijoneventos;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class GijoneventosApplicationTests {
+class GijoneventosApplicationTests extends IntegrationTest {
 
 	@Test
 	void contextLoads() {
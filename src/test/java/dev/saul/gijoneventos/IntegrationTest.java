@@ -0,0 +1,162 @@
+package dev.saul.gijoneventos;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import dev.saul.gijoneventos.event.EventCatalogVersion;
+import dev.saul.gijoneventos.event.EventSearchIndex;
+import dev.saul.gijoneventos.event.GeoGridIndex;
+import dev.saul.gijoneventos.event.ReservationLedger;
+import dev.saul.gijoneventos.event.UpcomingEventsIndex;
+import dev.saul.gijoneventos.user.UserCache;
+import dev.saul.gijoneventos.user.UserEntity;
+import dev.saul.gijoneventos.user.UserExistenceFilter;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Base de los tests de integración. Todos declaran la misma configuración, así que Spring reutiliza un único
+ * contexto (y la BD testdb) para todas las clases; las que necesitan otra configuración la añaden con
+ * @TestPropertySource y obtienen su propio contexto.
+ *
+ * Antes de cada test se vacían las tablas, se dejan los dos roles de data.sql y se rehace el estado que la
+ * aplicación guarda en memoria (índices, cachés, reservas de "ticket drop", versión del catálogo), que si no
+ * arrastraría datos del test anterior. Cada test siembra después solo lo suyo con los métodos de aquí; si
+ * escribe por JDBC lo que lee un índice, reconstruye ese índice al terminar de sembrar.
+ */
+@SpringBootTest(properties = {
+    // Cuenta de sentencias con las estadísticas de Hibernate, sin su resumen por sesión en el log
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+    // Joins concurrentes sobre la misma fila (EventJoinConcurrencyTest)
+    "spring.datasource.url=jdbc:h2:mem:testdb;LOCK_TIMEOUT=30000",
+    "spring.datasource.hikari.maximum-pool-size=32",
+    // Las tareas periódicas se aparcan: los tests llaman a dispatch(), heartbeat() y flush() a mano
+    "events.stream.interval=PT1H",
+    "events.stream.heartbeat=PT1H",
+    "events.ticket-drop.flush-interval=PT1H",
+    // Límites pequeños para poder llegar a ellos con pocos datos
+    "events.stream.max-pending=4",
+    "events.stream.write-timeout=PT0.2S",
+    "events.export.chunk-size=100",
+    "events.import.batch-size=2",
+    "users.existence-filter.expected-insertions=1000",
+    "password-hashing.threads=1",
+    "password-hashing.queue-capacity=1",
+    // Páginas de hasta 1000 eventos (EventListingQueryCountTest)
+    "events.page.max-size=1000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+public abstract class IntegrationTest {
+
+    // BCrypt es lento a propósito: cada contraseña se codifica una vez para toda la ejecución
+    private static final Map<String, String> ENCODED = new ConcurrentHashMap<>();
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserExistenceFilter existenceFilter;
+
+    @Autowired
+    private EventSearchIndex searchIndex;
+
+    @Autowired
+    private GeoGridIndex geoIndex;
+
+    @Autowired
+    private UpcomingEventsIndex upcomingIndex;
+
+    @Autowired
+    private ReservationLedger reservationLedger;
+
+    @Autowired
+    private EventCatalogVersion catalogVersion;
+
+    @BeforeEach
+    protected void resetData() {
+        // La caché solo guarda usuarios que existen: basta con invalidar los que quedan en la tabla
+        jdbcTemplate.query("SELECT id_user, username FROM users", row -> {
+            UserEntity user = new UserEntity();
+            user.setId(row.getLong("id_user"));
+            user.setUsername(row.getString("username"));
+            userCache.invalidate(user);
+        });
+        jdbcTemplate.update("DELETE FROM event_attendees");
+        jdbcTemplate.update("DELETE FROM events");
+        jdbcTemplate.update("DELETE FROM roles_users");
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("DELETE FROM roles");
+        jdbcTemplate.update("INSERT INTO roles (id_role, name) VALUES (1, 'ROLE_ADMIN')");
+        jdbcTemplate.update("INSERT INTO roles (id_role, name) VALUES (2, 'ROLE_USER')");
+
+        // También las consultas cacheadas: los cambios por JDBC no invalidan sus regiones
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        existenceFilter.rebuild();
+        searchIndex.rebuild();
+        geoIndex.rebuild();
+        upcomingIndex.rebuild();
+        reservationLedger.recover();
+        catalogVersion.changed();
+    }
+
+    protected String encode(String password) {
+        return ENCODED.computeIfAbsent(password, passwordEncoder::encode);
+    }
+
+    // Usuarios 1..count ("userN", contraseña sin codificar: no pueden iniciar sesión), sin roles
+    protected void insertUsers(int count) {
+        List<Object[]> users = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            users.add(new Object[] { id, "User " + id, "user" + id, "user" + id + "@example.com" });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO users (id_user, full_name, username, email, phone, password) VALUES (?, ?, ?, ?, '600000000', 'x')", users);
+    }
+
+    // Usuario con el que se puede iniciar sesión; role es "ROLE_ADMIN" o "ROLE_USER"
+    protected void insertUser(long id, String username, String password, String role) {
+        jdbcTemplate.update(
+            "INSERT INTO users (id_user, full_name, username, email, phone, password) VALUES (?, ?, ?, ?, '600000000', ?)",
+            id, Character.toUpperCase(username.charAt(0)) + username.substring(1) + " User", username, username + "@example.com",
+            encode(password));
+        jdbcTemplate.update("INSERT INTO roles_users (user_id, role_id) SELECT ?, id_role FROM roles WHERE name = ?", id, role);
+    }
+
+    protected void grantToAllUsers(String role) {
+        jdbcTemplate.update("INSERT INTO roles_users (user_id, role_id) SELECT u.id_user, r.id_role FROM users u, roles r WHERE r.name = ?", role);
+    }
+
+    protected void insertEvent(long id, String title, LocalDateTime date, long organizerId, int maxAttendees) {
+        jdbcTemplate.update(
+            "INSERT INTO events (id_event, title, description, date, location, organizer_id, max_attendees, attendee_count) "
+                + "VALUES (?, ?, 'Desc', ?, 'Gijón', ?, ?, 0)",
+            id, title, Timestamp.valueOf(date), organizerId, maxAttendees);
+    }
+}
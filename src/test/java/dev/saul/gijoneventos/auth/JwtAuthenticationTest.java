@@ -0,0 +1,81 @@
+package dev.saul.gijoneventos.auth;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.saul.gijoneventos.IntegrationTest;
+
+class JwtAuthenticationTest extends IntegrationTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seed() {
+        insertUser(7, "donald", "password", "ROLE_USER");
+    }
+
+    @Test
+    void loginIssuesATokenAcceptedByTheOtherEndpoints() throws Exception {
+        String body = mockMvc.perform(get("/api/v1/login").with(httpBasic("donald", "password")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.username", equalTo("donald")))
+            .andExpect(jsonPath("$.role", equalTo("ROLE_USER")))
+            .andExpect(jsonPath("$.tokenType", equalTo("Bearer")))
+            .andReturn().getResponse().getContentAsString();
+        JsonNode login = objectMapper.readTree(body);
+        String token = login.get("accessToken").asText();
+
+        mockMvc.perform(get("/api/v1/events").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void bearerPrincipalIsResolvedFromClaimsWithoutReloadingTheUser() throws Exception {
+        jdbcTemplate.update("INSERT INTO events (id_event, title, description, date, location, max_attendees, organizer_id) VALUES (1, 'Charla', 'Desc', '2030-01-01 10:00:00', 'Gijón', 10, 7)");
+        String body = mockMvc.perform(get("/api/v1/login").with(httpBasic("donald", "password")))
+            .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readTree(body).get("accessToken").asText();
+        jdbcTemplate.update("DELETE FROM roles_users");
+        jdbcTemplate.update("UPDATE users SET username = 'renamed' WHERE id_user = 7");
+
+        // El token es la única fuente del principal: el filtro ORGANIZED usa el uid del claim
+        mockMvc.perform(get("/api/v1/events").param("filter", "ORGANIZED")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].id", equalTo(1)));
+    }
+
+    @Test
+    void aTokenCannotBeExchangedForANewOneAtLogin() throws Exception {
+        String body = mockMvc.perform(get("/api/v1/login").with(httpBasic("donald", "password")))
+            .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readTree(body).get("accessToken").asText();
+
+        // Solo Basic: renovar exige la contraseña, y con ella los roles vuelven a leerse de la BD
+        mockMvc.perform(get("/api/v1/login").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void tamperedTokenIsRejected() throws Exception {
+        String body = mockMvc.perform(get("/api/v1/login").with(httpBasic("donald", "password")))
+            .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readTree(body).get("accessToken").asText();
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+
+        mockMvc.perform(get("/api/v1/login").header(HttpHeaders.AUTHORIZATION, "Bearer " + tampered))
+            .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,162 @@
+package dev.saul.gijoneventos.benchmark;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import dev.saul.gijoneventos.event.AttendanceStream;
+import dev.saul.gijoneventos.event.EventService;
+
+/**
+ * N suscriptores inactivos de GET /events/{id}/stream (por defecto 10k) sobre un servidor real:
+ * memoria y hilos que cuestan, y latencia desde un join hasta que el último suscriptor recibe el aforo.
+ * Los clientes son sockets no bloqueantes del mismo proceso, así que hacen falta unos 2×N descriptores.
+ * Se ejecuta con: mvn test -Pbenchmark (-Dbench.subscribers=N, -Dbench.rounds=N)
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = { "spring.jpa.show-sql=false", "logging.level.root=WARN", "events.stream.interval=PT0.1S" })
+@ActiveProfiles("h2")
+class AttendanceStreamBenchmark {
+
+    private static final int SUBSCRIBERS = Integer.getInteger("bench.subscribers", 10_000);
+    private static final int ROUNDS = Integer.getInteger("bench.rounds", 20);
+    private static final byte[] FRAME = "event:attendance".getBytes(StandardCharsets.US_ASCII);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private AttendanceStream attendanceStream;
+
+    // Por suscriptor: posición en el patrón FRAME y mensajes de aforo recibidos
+    private final int[] matched = new int[SUBSCRIBERS];
+    private final int[] frames = new int[SUBSCRIBERS];
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+
+    @Test
+    void idleSubscribersAndFanOut() throws Exception {
+        seed();
+        long heapBefore = usedHeap();
+        int threadsBefore = Thread.activeCount();
+
+        List<SocketChannel> channels = new ArrayList<>(SUBSCRIBERS);
+        try (Selector selector = Selector.open()) {
+            byte[] request = ("GET /api/v1/events/1/stream HTTP/1.1\r\nHost: localhost\r\nAccept: text/event-stream\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+            long connectStart = System.nanoTime();
+            for (int i = 0; i < SUBSCRIBERS; i++) {
+                SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", port));
+                channel.write(ByteBuffer.wrap(request));
+                channel.configureBlocking(false);
+                channel.register(selector, SelectionKey.OP_READ, i);
+                channels.add(channel);
+            }
+            // Instantánea inicial en todos
+            awaitFrames(selector, 1);
+            long connectMillis = (System.nanoTime() - connectStart) / 1_000_000;
+            long heapAfter = usedHeap();
+            int threadsAfter = Thread.activeCount();
+
+            long[] latencies = new long[ROUNDS];
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                eventService.joinEvent(1L, round + 2L);
+                awaitFrames(selector, round + 2);
+                latencies[round] = System.nanoTime() - start;
+            }
+            Arrays.sort(latencies);
+
+            System.out.printf("%nGET /events/{id}/stream con %d suscriptores (conectados en %d ms)%n", SUBSCRIBERS, connectMillis);
+            System.out.printf("  suscriptores registrados : %d%n", attendanceStream.subscribers());
+            System.out.printf("  heap                     : %.1f MB (%.2f KB por suscriptor, clientes incluidos)%n",
+                (heapAfter - heapBefore) / 1048576.0, (heapAfter - heapBefore) / 1024.0 / SUBSCRIBERS);
+            System.out.printf("  hilos                    : %d -> %d%n", threadsBefore, threadsAfter);
+            System.out.printf("  join -> último suscriptor: p50 %.1f ms   p99 %.1f ms   (intervalo de agrupación 100 ms)%n%n",
+                latencies[ROUNDS / 2] / 1e6, latencies[(int) (ROUNDS * 0.99)] / 1e6);
+        } finally {
+            for (SocketChannel channel : channels) {
+                channel.close();
+            }
+        }
+    }
+
+    private void seed() {
+        jdbcTemplate.update("DELETE FROM event_attendees");
+        jdbcTemplate.update("DELETE FROM events");
+        jdbcTemplate.update("DELETE FROM roles_users");
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("DELETE FROM roles");
+        for (long id = 1; id <= ROUNDS + 1; id++) {
+            jdbcTemplate.update(
+                "INSERT INTO users (id_user, full_name, username, email, phone, password) VALUES (?, ?, ?, ?, '600000000', 'x')",
+                id, "User " + id, "user" + id, "user" + id + "@example.com");
+        }
+        jdbcTemplate.update(
+            "INSERT INTO events (id_event, title, description, date, location, organizer_id, max_attendees, attendee_count) VALUES (1, 'Gran evento', 'Desc', ?, 'Gijón', 1, 100000, 0)",
+            Timestamp.valueOf(LocalDateTime.now().plusDays(1)));
+    }
+
+    // Lee de todos los sockets hasta que cada suscriptor lleva 'expected' mensajes de aforo
+    private void awaitFrames(Selector selector, int expected) throws IOException {
+        int done = (int) Arrays.stream(frames).filter(count -> count >= expected).count();
+        long deadline = System.nanoTime() + 120_000_000_000L;
+        while (done < SUBSCRIBERS) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Solo " + done + " suscriptores recibieron el mensaje " + expected);
+            }
+            selector.select(1000);
+            for (SelectionKey key : selector.selectedKeys()) {
+                int subscriber = (Integer) key.attachment();
+                boolean wasDone = frames[subscriber] >= expected;
+                buffer.clear();
+                ((SocketChannel) key.channel()).read(buffer);
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    matched[subscriber] = b == FRAME[matched[subscriber]] ? matched[subscriber] + 1 : (b == FRAME[0] ? 1 : 0);
+                    if (matched[subscriber] == FRAME.length) {
+                        frames[subscriber]++;
+                        matched[subscriber] = 0;
+                    }
+                }
+                if (!wasDone && frames[subscriber] >= expected) {
+                    done++;
+                }
+            }
+            selector.selectedKeys().clear();
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
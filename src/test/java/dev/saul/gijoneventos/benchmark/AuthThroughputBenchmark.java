@@ -0,0 +1,121 @@
+package dev.saul.gijoneventos.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Peticiones/segundo contra GET /events autenticando con Basic (BCrypt por petición)
+ * frente a Bearer (JWT verificado en local). Se ejecuta con: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = { "spring.jpa.show-sql=false", "logging.level.root=WARN" })
+@ActiveProfiles("h2")
+class AuthThroughputBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("bench.clients", 16);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("bench.warmupSeconds", 5));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("bench.seconds", 15));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM event_attendees");
+        jdbcTemplate.update("DELETE FROM events");
+        jdbcTemplate.update("DELETE FROM roles_users");
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("DELETE FROM roles");
+        jdbcTemplate.update("INSERT INTO roles (id_role, name) VALUES (2, 'ROLE_USER')");
+        jdbcTemplate.update(
+            "INSERT INTO users (id_user, full_name, username, email, phone, password) VALUES (1, 'Bench User', 'bench', 'bench@example.com', '600000000', ?)",
+            passwordEncoder.encode("password"));
+        jdbcTemplate.update("INSERT INTO roles_users (user_id, role_id) VALUES (1, 2)");
+    }
+
+    @Test
+    void basicVersusBearer() throws Exception {
+        String basic = "Basic " + Base64.getEncoder().encodeToString("bench:password".getBytes(StandardCharsets.UTF_8));
+        String bearer = "Bearer " + objectMapper.readTree(send("/api/v1/login", basic).body()).get("accessToken").asText();
+
+        double basicRps = run(basic);
+        double bearerRps = run(bearer);
+
+        System.out.printf("%nGET /events con %d clientes durante %ds%n", CLIENTS, MEASUREMENT.toSeconds());
+        System.out.printf("  Basic  : %10.1f req/s%n", basicRps);
+        System.out.printf("  Bearer : %10.1f req/s  (x%.1f)%n%n", bearerRps, bearerRps / basicRps);
+    }
+
+    private double run(String authorization) throws Exception {
+        drive(authorization, WARMUP);
+        return drive(authorization, MEASUREMENT) / (double) MEASUREMENT.toSeconds();
+    }
+
+    private long drive(String authorization, Duration duration) throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            results.add(executor.submit(() -> {
+                long ok = 0;
+                while (running.get()) {
+                    if (send("/api/v1/events?size=20", authorization).statusCode() == 200) {
+                        ok++;
+                    }
+                }
+                return ok;
+            }));
+        }
+        Thread.sleep(duration.toMillis());
+        running.set(false);
+        long total = 0;
+        for (Future<Long> result : results) {
+            total += result.get();
+        }
+        executor.shutdown();
+        return total;
+    }
+
+    private HttpResponse<String> send(String path, String authorization) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .header("Authorization", authorization)
+            .GET()
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,89 @@
+package dev.saul.gijoneventos.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.saul.gijoneventos.event.EventDTOResponse;
+import dev.saul.gijoneventos.event.EventMapper;
+import dev.saul.gijoneventos.event.EventPageDTOResponse;
+import dev.saul.gijoneventos.event.EventSummary;
+
+/**
+ * JSON frente a CBOR y Smile sobre un listado de bench.events eventos (10.000 por defecto, 10
+ * organizadores, 0-60 asistentes): ns/op de codificar y de decodificar, y como métricas secundarias los
+ * bytes del cuerpo sin comprimir y con gzip (mvn test -Pbenchmark -Dtest=EventFormatsBenchmark).
+ * Deja los resultados en target/benchmark-results/EventFormatsBenchmark.json (formato de MicroBenchmark).
+ */
+@Tag("benchmark")
+class EventFormatsBenchmark {
+
+    private static final int EVENTS = Integer.getInteger("bench.events", 10_000);
+
+    private final MicroBenchmark bench = new MicroBenchmark(EventFormatsBenchmark.class);
+
+    @Test
+    void formats() throws Exception {
+        System.out.printf("%nFormatos de respuesta, %d eventos (avgt, %s)%n", EVENTS, System.getProperty("java.version"));
+
+        EventPageDTOResponse page = new EventPageDTOResponse(events(EVENTS), null);
+        Map<String, Supplier<ObjectMapper>> formats = new LinkedHashMap<>();
+        formats.put("json", () -> Jackson2ObjectMapperBuilder.json().build());
+        formats.put("cbor", () -> Jackson2ObjectMapperBuilder.cbor().build());
+        formats.put("smile", () -> Jackson2ObjectMapperBuilder.smile().build());
+
+        for (Map.Entry<String, Supplier<ObjectMapper>> format : formats.entrySet()) {
+            ObjectMapper mapper = format.getValue().get();
+            Map<String, String> params = Map.of("format", format.getKey(), "events", "" + EVENTS);
+            byte[] body = mapper.writeValueAsBytes(page);
+
+            bench.run("encode", params, () -> mapper.writeValueAsBytes(page));
+            bench.secondary("bytes", body.length, "B");
+            bench.secondary("bytes.gzip", gzip(body).length, "B");
+            bench.run("decode", params, () -> mapper.readValue(body, EventPageDTOResponse.class));
+        }
+
+        System.out.printf("  resultados: %s%n%n", bench.write().toAbsolutePath());
+    }
+
+    private static List<EventDTOResponse> events(int size) {
+        List<EventDTOResponse> events = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            long organizer = 1 + id % 10;
+            int attendeeCount = (int) (id * 7 % 61);
+            EventSummary summary = new EventSummary(id, "Concierto en la playa " + id,
+                "Música en directo en la Playa de San Lorenzo con artistas locales y food trucks",
+                LocalDateTime.of(2030, 6, 15, 19, 30).plusMinutes(id * 30), "Playa de San Lorenzo, Gijón", 500,
+                organizer, "Organizador " + organizer, "organizer" + organizer, "organizer" + organizer + "@example.com",
+                "600000000", attendeeCount, 43.5420, -5.6550);
+            Set<Long> attendees = new LinkedHashSet<>();
+            for (int i = 0; i < attendeeCount; i++) {
+                attendees.add(10_000 + id * 1_000 + i * 37L);
+            }
+            events.add(EventMapper.toDTOResponse(summary, attendees));
+        }
+        return events;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,143 @@
+package dev.saul.gijoneventos.benchmark;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Eventos/segundo importados por POST /events/import (JSON y CSV). El cuerpo se genera
+ * sobre la marcha, así que ni el cliente ni el servidor tienen el payload completo en memoria.
+ * Se ejecuta con: mvn test -Pbenchmark (-Dbench.rows=N)
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = { "spring.jpa.show-sql=false", "logging.level.root=WARN" })
+@ActiveProfiles("h2")
+class EventImportBenchmark {
+
+    private static final int ROWS = Integer.getInteger("bench.rows", 100_000);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM event_attendees");
+        jdbcTemplate.update("DELETE FROM events");
+        jdbcTemplate.update("DELETE FROM roles_users");
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("DELETE FROM roles");
+        jdbcTemplate.update("INSERT INTO roles (id_role, name) VALUES (1, 'ROLE_ADMIN')");
+        jdbcTemplate.update(
+            "INSERT INTO users (id_user, full_name, username, email, phone, password) VALUES (1, 'Bench Admin', 'admin', 'admin@example.com', '600000000', ?)",
+            passwordEncoder.encode("password"));
+        jdbcTemplate.update("INSERT INTO roles_users (user_id, role_id) VALUES (1, 1)");
+    }
+
+    @Test
+    void importThroughput() throws Exception {
+        // Calentamiento
+        run("application/json", ROWS / 2);
+        run("text/csv", ROWS / 2);
+
+        double json = run("application/json", ROWS);
+        double csv = run("text/csv", ROWS);
+
+        System.out.printf("%nPOST /events/import con %d filas%n", ROWS);
+        System.out.printf("  JSON : %10.0f eventos/s%n", json);
+        System.out.printf("  CSV  : %10.0f eventos/s%n%n", csv);
+    }
+
+    private double run(String contentType, int rows) throws Exception {
+        String basic = "Basic " + Base64.getEncoder().encodeToString("admin:password".getBytes(StandardCharsets.UTF_8));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/events/import"))
+            .header("Authorization", basic)
+            .header("Content-Type", contentType)
+            .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new GeneratedBody(contentType.equals("text/csv"), rows)))
+            .build();
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (response.statusCode() != 200 || !response.body().contains("\"imported\":" + rows)) {
+            throw new IllegalStateException("Importación fallida: " + response.statusCode() + " " + response.body());
+        }
+        return rows / seconds;
+    }
+
+    // Genera las filas bajo demanda
+    private static final class GeneratedBody extends InputStream {
+
+        private final boolean csv;
+        private final int rows;
+        private int next;
+        private byte[] chunk;
+        private int position;
+
+        private GeneratedBody(boolean csv, int rows) {
+            this.csv = csv;
+            this.rows = rows;
+            this.chunk = (csv ? "title,description,date,location,maxAttendees\n" : "[").getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int read() {
+            if (position == chunk.length && !advance()) {
+                return -1;
+            }
+            return chunk[position++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position == chunk.length && !advance()) {
+                return -1;
+            }
+            int count = Math.min(length, chunk.length - position);
+            System.arraycopy(chunk, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        private boolean advance() {
+            if (next > rows) {
+                return false;
+            }
+            String text;
+            if (next == rows) {
+                text = csv ? "" : "]";
+            } else {
+                String date = "2030-01-01T10:00:00";
+                text = csv
+                    ? "Evento " + next + ",Importado," + date + ",Gijón," + (next % 500 + 1) + "\n"
+                    : (next == 0 ? "" : ",") + "{\"title\":\"Evento " + next + "\",\"description\":\"Importado\",\"date\":\""
+                        + date + "\",\"location\":\"Gijón\",\"maxAttendees\":" + (next % 500 + 1) + "}";
+            }
+            next++;
+            chunk = text.getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            return chunk.length > 0 || advance();
+        }
+    }
+}
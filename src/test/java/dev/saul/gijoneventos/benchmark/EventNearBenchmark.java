@@ -0,0 +1,95 @@
+package dev.saul.gijoneventos.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import dev.saul.gijoneventos.event.GeoGridIndex;
+import dev.saul.gijoneventos.event.GeoPoint;
+
+/**
+ * Latencia de GeoGridIndex.near con 100k eventos sintéticos repartidos por Asturias (sin BD),
+ * comparada con recorrer todos los puntos calculando la distancia, que es lo que haría la tabla sin índice.
+ * Se ejecuta con: mvn test -Pbenchmark (-Dbench.events=N, -Dbench.queries=N)
+ */
+@Tag("benchmark")
+class EventNearBenchmark {
+
+    private static final int EVENTS = Integer.getInteger("bench.events", 100_000);
+    private static final int QUERIES = Integer.getInteger("bench.queries", 20_000);
+
+    // Caja aproximada de Asturias, con la mitad de los eventos concentrados alrededor de Gijón
+    private static final double MIN_LAT = 43.0, MAX_LAT = 43.65, MIN_LON = -7.2, MAX_LON = -4.5;
+    private static final double GIJON_LAT = 43.5453, GIJON_LON = -5.6619;
+
+    @Test
+    void nearLatency() {
+        Random random = new Random(42);
+        GeoGridIndex index = new GeoGridIndex(null, 0.01);
+        double[][] points = new double[EVENTS][];
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            double lat, lon;
+            if (i % 2 == 0) {
+                lat = GIJON_LAT + random.nextGaussian() * 0.03;
+                lon = GIJON_LON + random.nextGaussian() * 0.04;
+            } else {
+                lat = MIN_LAT + random.nextDouble() * (MAX_LAT - MIN_LAT);
+                lon = MIN_LON + random.nextDouble() * (MAX_LON - MIN_LON);
+            }
+            points[i] = new double[] { lat, lon };
+            index.put(new GeoPoint((long) i + 1, lat, lon));
+        }
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        System.out.printf("%nGeoGridIndex con %d eventos (indexado en %d ms)%n", EVENTS, buildMillis);
+        for (double radius : new double[] { 0.5, 2, 5, 20 }) {
+            long[] samples = measure(QUERIES, random, query -> index.near(query[0], query[1], radius, 20).size());
+            long[] scan = measure(Math.max(1, QUERIES / 100), random, query -> linearScan(points, query[0], query[1], radius, 20));
+            System.out.printf("  radio %5.1f km   rejilla p50 %7.3f ms  p99 %7.3f ms   recorrido completo p50 %7.3f ms%n",
+                radius, p(samples, 0.5), p(samples, 0.99), p(scan, 0.5));
+        }
+        System.out.println();
+    }
+
+    private static long[] measure(int count, Random random, ToIntFunction<double[]> query) {
+        long[] samples = new long[count];
+        for (int i = 0; i < count; i++) {
+            double[] point = { GIJON_LAT + random.nextGaussian() * 0.05, GIJON_LON + random.nextGaussian() * 0.05 };
+            long start = System.nanoTime();
+            query.applyAsInt(point);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static double p(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))] / 1e6;
+    }
+
+    private static int linearScan(double[][] points, double lat, double lon, double radiusKm, int limit) {
+        List<double[]> hits = new ArrayList<>();
+        for (double[] point : points) {
+            double distance = haversine(lat, lon, point[0], point[1]);
+            if (distance <= radiusKm) {
+                hits.add(new double[] { distance });
+            }
+        }
+        hits.sort(Comparator.comparingDouble(hit -> hit[0]));
+        return Math.min(limit, hits.size());
+    }
+
+    private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double sinLat = Math.sin(Math.toRadians(lat2 - lat1) / 2);
+        double sinLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+        double a = sinLat * sinLat + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLon * sinLon;
+        return 2 * 6371.0088 * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,140 @@
+package dev.saul.gijoneventos.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.saul.gijoneventos.event.CompactEventPage;
+import dev.saul.gijoneventos.event.CompactEventPageConverter;
+import dev.saul.gijoneventos.event.EventDTOResponse;
+import dev.saul.gijoneventos.event.EventMapper;
+import dev.saul.gijoneventos.event.EventPageDTOResponse;
+import dev.saul.gijoneventos.event.EventSummary;
+
+/**
+ * Listado de eventos: camino normal (EventMapper.toDTOResponse con Set<Long> + Jackson por reflexión)
+ * frente a CompactEventPageConverter (JsonGenerator desde las proyecciones, organizadores una vez y
+ * asistentes como long[]). Páginas de 20 y 100 eventos de 10 organizadores con 0-60 asistentes.
+ * Además de ns/op guarda como métricas secundarias los bytes por página (sin comprimir y con gzip) y
+ * los bytes reservados por operación (alloc).
+ * Deja los resultados en target/benchmark-results/EventPageSerializationBenchmark.json (formato de MicroBenchmark).
+ * Se ejecuta con: mvn test -Pbenchmark -Dtest=EventPageSerializationBenchmark
+ */
+@Tag("benchmark")
+class EventPageSerializationBenchmark {
+
+    private static final int ALLOCATION_SAMPLES = 2000;
+
+    private final MicroBenchmark bench = new MicroBenchmark(EventPageSerializationBenchmark.class);
+
+    @Test
+    void eventPages() throws Exception {
+        System.out.printf("%nSerialización de páginas de eventos (avgt, %s)%n", System.getProperty("java.version"));
+
+        // Mismo ObjectMapper que construye Spring Boot (módulos JSR-310, sin fechas como timestamp)
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        CompactEventPageConverter converter = new CompactEventPageConverter(objectMapper);
+
+        for (int size : new int[] { 20, 100 }) {
+            List<EventSummary> events = summaries(size);
+            Map<Long, long[]> attendeeArrays = attendees(events);
+            Map<Long, Set<Long>> attendeeSets = new HashMap<>();
+            attendeeArrays.forEach((id, ids) -> {
+                Set<Long> set = new HashSet<>();
+                for (long userId : ids) {
+                    set.add(userId);
+                }
+                attendeeSets.put(id, set);
+            });
+            CompactEventPage page = new CompactEventPage(events, attendeeArrays, "MjAzMC0wMS0wMVQxMDowMHwyMA");
+            Map<String, String> params = Map.of("size", "" + size);
+
+            // Los dos escriben en el mismo búfer reutilizado, como en la respuesta HTTP: solo se mide la serialización
+            ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 16);
+            Callable<ByteArrayOutputStream> regular = () -> {
+                out.reset();
+                List<EventDTOResponse> dtos = events.stream()
+                    .map(event -> EventMapper.toDTOResponse(event, attendeeSets.getOrDefault(event.id(), Set.of())))
+                    .toList();
+                objectMapper.writeValue(out, new EventPageDTOResponse(dtos, page.nextCursor()));
+                return out;
+            };
+            Callable<ByteArrayOutputStream> compact = () -> {
+                out.reset();
+                converter.write(page, out);
+                return out;
+            };
+
+            measure("dtoJackson", params, regular);
+            measure("compactGenerator", params, compact);
+        }
+
+        System.out.printf("  resultados: %s%n%n", bench.write().toAbsolutePath());
+    }
+
+    private void measure(String name, Map<String, String> params, Callable<ByteArrayOutputStream> operation) throws Exception {
+        bench.run(name, params, operation);
+        byte[] body = operation.call().toByteArray();
+        bench.secondary("bytes", body.length, "B");
+        bench.secondary("bytes.gzip", gzip(body).length, "B");
+        bench.secondary("alloc", allocatedPerOperation(operation), "B/op");
+    }
+
+    private static double allocatedPerOperation(Callable<?> operation) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ALLOCATION_SAMPLES; i++) {
+            operation.call();
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - before) / (double) ALLOCATION_SAMPLES;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<EventSummary> summaries(int size) {
+        List<EventSummary> summaries = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            long organizer = 1 + id % 10;
+            summaries.add(new EventSummary(id, "Concierto en la playa " + id,
+                "Música en directo en la Playa de San Lorenzo con artistas locales y food trucks",
+                LocalDateTime.of(2030, 6, 15, 19, 30).plusDays(id), "Playa de San Lorenzo, Gijón", 500,
+                organizer, "Organizador " + organizer, "organizer" + organizer, "organizer" + organizer + "@example.com",
+                "600000000", (int) (id * 7 % 61), 43.5420, -5.6550));
+        }
+        return summaries;
+    }
+
+    // attendeeCount asistentes por evento, con ids de 5 o 6 cifras como en una base ya poblada
+    private static Map<Long, long[]> attendees(List<EventSummary> events) {
+        Map<Long, long[]> attendees = new HashMap<>();
+        for (EventSummary event : events) {
+            long[] ids = new long[event.attendeeCount()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = 10_000 + event.id() * 1_000 + i * 37L;
+            }
+            attendees.put(event.id(), ids);
+        }
+        return attendees;
+    }
+}
@@ -0,0 +1,76 @@
+package dev.saul.gijoneventos.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import dev.saul.gijoneventos.event.EventSearchIndex;
+import dev.saul.gijoneventos.event.EventSummary;
+
+/**
+ * Latencia de EventSearchIndex.search con 100k eventos sintéticos (sin BD).
+ * Se ejecuta con: mvn test -Pbenchmark (-Dbench.events=N, -Dbench.queries=N)
+ */
+@Tag("benchmark")
+class EventSearchBenchmark {
+
+    private static final int EVENTS = Integer.getInteger("bench.events", 100_000);
+    private static final int QUERIES = Integer.getInteger("bench.queries", 20_000);
+
+    private static final String[] WORDS = {
+        "concierto", "jazz", "rock", "gaitas", "sidra", "ruta", "teatro", "cine", "festival", "mercado",
+        "artesanía", "exposición", "pintura", "fotografía", "taller", "niños", "familia", "deporte", "carrera",
+        "maratón", "playa", "paseo", "museo", "charla", "literatura", "poesía", "danza", "flamenco", "folk",
+        "gastronomía", "cata", "vino", "queso", "verano", "invierno", "noche", "feria", "libro", "cómic", "juegos"
+    };
+
+    private static final String[] PLACES = {
+        "Gijón", "Cimadevilla", "Playa de San Lorenzo", "Parque de Isabel la Católica", "Laboral",
+        "Teatro Jovellanos", "Acuario", "Jardín Botánico", "Plaza Mayor", "El Muselín", "La Calzada", "Somió"
+    };
+
+    private static final List<String> SEARCHES = List.of(
+        "concierto", "gijon", "sidra cimadevilla", "teat", "festival de jazz", "ma", "playa verano noche",
+        "exposicion fotografia laboral", "flamenco", "niños familia taller");
+
+    @Test
+    void searchLatency() {
+        Random random = new Random(42);
+        EventSearchIndex index = new EventSearchIndex(null);
+        long buildStart = System.nanoTime();
+        for (long id = 1; id <= EVENTS; id++) {
+            index.index(new EventSummary(id, words(random, 3), words(random, 15), LocalDateTime.now(),
+                PLACES[random.nextInt(PLACES.length)], 100, 1L, "Org", "org", "org@example.com", "600000000", 0, null, null));
+        }
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        for (int i = 0; i < QUERIES; i++) {
+            index.search(SEARCHES.get(i % SEARCHES.size()), 20);
+        }
+        System.out.printf("%nEventSearchIndex con %d eventos (indexado en %d ms)%n", EVENTS, buildMillis);
+        for (String query : SEARCHES) {
+            long[] samples = new long[QUERIES / SEARCHES.size()];
+            for (int i = 0; i < samples.length; i++) {
+                long start = System.nanoTime();
+                index.search(query, 20);
+                samples[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(samples);
+            System.out.printf("  %-32s p50 %7.3f ms   p99 %7.3f ms%n", '"' + query + '"',
+                samples[samples.length / 2] / 1e6, samples[(int) (samples.length * 0.99)] / 1e6);
+        }
+        System.out.println();
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(i == 0 ? "" : " de ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
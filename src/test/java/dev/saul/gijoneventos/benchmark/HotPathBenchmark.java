@@ -0,0 +1,79 @@
+package dev.saul.gijoneventos.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.saul.gijoneventos.event.EventDTOResponse;
+import dev.saul.gijoneventos.event.EventMapper;
+import dev.saul.gijoneventos.event.EventSummary;
+import dev.saul.gijoneventos.security.SecurityUser;
+import dev.saul.gijoneventos.user.UserSnapshot;
+
+/**
+ * Coste de CPU por petición de los caminos calientes, sin Spring ni BD: mapeo EventSummary -> DTO,
+ * serialización Jackson de una página de eventos, LocalDateTime.parse de createFromDTO, SecurityUser
+ * (construcción y getAuthorities) y BCrypt con varios factores de coste.
+ * Deja los resultados en target/benchmark-results/HotPathBenchmark.json (formato de MicroBenchmark).
+ * Se ejecuta con: mvn test -Pbenchmark (-Dbench.iterations=N, -Dbench.iterationMillis=N)
+ */
+@Tag("benchmark")
+class HotPathBenchmark {
+
+    private final MicroBenchmark bench = new MicroBenchmark(HotPathBenchmark.class);
+
+    @Test
+    void hotPaths() throws Exception {
+        System.out.printf("%nCaminos calientes por petición (avgt, %s)%n", System.getProperty("java.version"));
+
+        List<EventSummary> page = summaries(20);
+        Set<Long> attendees = Set.of(1L, 2L, 3L, 4L, 5L);
+        bench.run("toDTOResponse", () -> EventMapper.toDTOResponse(page.get(0), null));
+        bench.run("toDTOResponseWithAttendees", () -> EventMapper.toDTOResponse(page.get(0), attendees));
+
+        // Mismo ObjectMapper que construye Spring Boot (módulos JSR-310, sin fechas como timestamp)
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        for (int size : new int[] { 20, 100 }) {
+            List<EventDTOResponse> dtos = summaries(size).stream().map(event -> EventMapper.toDTOResponse(event, null)).toList();
+            bench.run("serializeEventPage", Map.of("size", "" + size), () -> objectMapper.writeValueAsBytes(dtos));
+        }
+
+        bench.run("parseEventDate", () -> LocalDateTime.parse("2030-06-15T19:30:00"));
+
+        UserSnapshot snapshot = new UserSnapshot(1L, "donald", "Donald Duck", "donald@example.com", "600000000", "x",
+            List.of(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_USER")));
+        SecurityUser securityUser = new SecurityUser(snapshot);
+        bench.run("newSecurityUser", () -> new SecurityUser(snapshot));
+        bench.run("getAuthorities", securityUser::getAuthorities);
+
+        for (int strength : new int[] { 4, 10, 12 }) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+            String hash = encoder.encode("password");
+            bench.run("bcryptMatches", Map.of("strength", "" + strength), () -> encoder.matches("password", hash));
+        }
+
+        System.out.printf("  resultados: %s%n%n", bench.write().toAbsolutePath());
+    }
+
+    private static List<EventSummary> summaries(int size) {
+        List<EventSummary> summaries = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            summaries.add(new EventSummary(id, "Concierto en la playa " + id,
+                "Música en directo en la Playa de San Lorenzo con artistas locales y food trucks",
+                LocalDateTime.of(2030, 6, 15, 19, 30), "Playa de San Lorenzo, Gijón", 500,
+                1L, "Donald Duck", "donald", "donald@example.com", "600000000", (int) (id * 7 % 500),
+                43.5420, -5.6550));
+        }
+        return summaries;
+    }
+}
@@ -0,0 +1,278 @@
+package dev.saul.gijoneventos.benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import dev.saul.gijoneventos.security.JwtTokenService;
+
+/**
+ * Prueba de carga de extremo a extremo con el perfil h2 y los datos de DataSeeder (bench.users,
+ * bench.events, bench.attendances): una mezcla de listados, joins, leaves, altas de eventos y logins
+ * a una tasa fija de llegada (bench.rate peticiones/s, modelo abierto).
+ *
+ * La latencia se mide desde el instante en que tocaba enviar cada petición, no desde que se envía,
+ * así que un servidor atascado no esconde la cola que provoca (coordinated omission). Se informa por
+ * endpoint de throughput y p50/p95/p99/p999 con HdrHistogram, y se deja en target/benchmark-results
+ * LoadTest.json (resumen) y LoadTest.hlog (histogramas completos, por etiqueta). La mezcla y los datos
+ * salen de semillas fijas, así que dos ejecuciones con los mismos parámetros son comparables entre commits.
+ * Se ejecuta con: mvn test -Pbenchmark (-Dbench.rate=N, -Dbench.seconds=N, -Dbench.mix=list:55,join:17,...)
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.root=WARN",
+    // BD propia: la de los demás benchmarks se vacía y se rellena a mano
+    "spring.datasource.url=jdbc:h2:mem:loadtest",
+    "seed.enabled=true",
+    "seed.users=${bench.users:1000}",
+    "seed.events=${bench.events:500}",
+    "seed.attendances=${bench.attendances:20000}"
+})
+@ActiveProfiles("h2")
+class LoadTestBenchmark {
+
+    private static final double RATE = Double.parseDouble(System.getProperty("bench.rate", "20"));
+    private static final long WARMUP_SECONDS = Long.getLong("bench.warmupSeconds", 10);
+    private static final long SECONDS = Long.getLong("bench.seconds", 60);
+    private static final String MIX = System.getProperty("bench.mix", "list:55,join:17,leave:13,create:5,login:10");
+    private static final long RANDOM_SEED = Long.getLong("bench.seed", 7);
+    // Usuarios con token para join/leave/create; login usa cualquiera de los sembrados
+    private static final int ACTIVE_USERS = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtTokenService jwtTokenService;
+
+    @Value("${seed.users}")
+    private int users;
+
+    @Value("${seed.events}")
+    private int events;
+
+    @Value("${seed.password}")
+    private String password;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final Map<String, ConcurrentHistogram> histograms = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> errors = new LinkedHashMap<>();
+    private String[] tokens;
+
+    @Test
+    void mixedLoad() throws Exception {
+        List<String> schedule = schedule();
+        tokens = new String[ACTIVE_USERS];
+        for (int i = 0; i < ACTIVE_USERS; i++) {
+            long userId = 3 + i; // tras daisy y donald
+            tokens[i] = "Bearer " + jwtTokenService.issue(userId, "user" + (i + 1), "User " + (i + 1), List.of("ROLE_USER")).value();
+        }
+        for (String endpoint : weights().keySet()) {
+            histograms.put(endpoint, new ConcurrentHistogram(3));
+            errors.put(endpoint, new AtomicLong());
+        }
+
+        drive(schedule, WARMUP_SECONDS, new Random(RANDOM_SEED));
+        histograms.values().forEach(Histogram::reset);
+        errors.values().forEach(counter -> counter.set(0));
+        long startMillis = System.currentTimeMillis();
+        long lagNanos = drive(schedule, SECONDS, new Random(RANDOM_SEED + 1));
+        for (Histogram histogram : histograms.values()) {
+            histogram.setStartTimeStamp(startMillis);
+            histogram.setEndTimeStamp(System.currentTimeMillis());
+        }
+
+        report(System.out, lagNanos);
+        write(startMillis);
+    }
+
+    // Envía las peticiones de 'seconds' segundos a RATE/s; cada una en su hilo virtual para no frenar el reloj
+    private long drive(List<String> schedule, long seconds, Random random) throws InterruptedException {
+        long total = (long) (RATE * seconds);
+        long periodNanos = (long) (1e9 / RATE);
+        long maxLag = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            for (long i = 0; i < total; i++) {
+                long intended = start + i * periodNanos;
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                maxLag = Math.max(maxLag, System.nanoTime() - intended);
+                String endpoint = schedule.get((int) (i % schedule.size()));
+                HttpRequest request = request(endpoint, random);
+                executor.execute(() -> send(endpoint, request, intended));
+            }
+        }
+        return maxLag;
+    }
+
+    private void send(String endpoint, HttpRequest request, long intended) {
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        histograms.get(endpoint).recordValue(System.nanoTime() - intended);
+        // 409/400 de join/leave (evento completo, ya inscrito) son respuestas esperadas con datos aleatorios
+        if (status < 200 || status >= 500) {
+            errors.get(endpoint).incrementAndGet();
+        }
+    }
+
+    private HttpRequest request(String endpoint, Random random) {
+        String base = "http://localhost:" + port + "/api/v1";
+        String token = tokens[random.nextInt(ACTIVE_USERS)];
+        long event = 1 + random.nextInt(Math.max(1, events));
+        return switch (endpoint) {
+            case "list" -> HttpRequest.newBuilder(URI.create(base + "/events?size=20"
+                + (random.nextBoolean() ? "&filter=UPCOMING" : ""))).GET().build();
+            case "join" -> HttpRequest.newBuilder(URI.create(base + "/events/" + event + "/join"))
+                .header("Authorization", token).POST(HttpRequest.BodyPublishers.noBody()).build();
+            case "leave" -> HttpRequest.newBuilder(URI.create(base + "/events/" + event + "/leave"))
+                .header("Authorization", token).POST(HttpRequest.BodyPublishers.noBody()).build();
+            case "create" -> HttpRequest.newBuilder(URI.create(base + "/events"))
+                .header("Authorization", token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("""
+                    {"title":"Carga %d","description":"Evento de la prueba de carga","date":"%s","location":"Gijón","maxAttendees":100}"""
+                    .formatted(random.nextInt(1_000_000), LocalDateTime.now().plusDays(1 + random.nextInt(60)).withNano(0))))
+                .build();
+            case "login" -> {
+                String user = "user" + (1 + random.nextInt(Math.max(1, users)));
+                String basic = Base64.getEncoder().encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+                yield HttpRequest.newBuilder(URI.create(base + "/login")).header("Authorization", "Basic " + basic).GET().build();
+            }
+            default -> throw new IllegalArgumentException("Endpoint desconocido en bench.mix: " + endpoint);
+        };
+    }
+
+    // Secuencia de 100 huecos con la proporción de bench.mix, barajada con semilla fija
+    private List<String> schedule() {
+        List<String> schedule = new ArrayList<>();
+        Map<String, Integer> weights = weights();
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        weights.forEach((endpoint, weight) -> {
+            for (int i = 0; i < Math.round(100.0 * weight / total); i++) {
+                schedule.add(endpoint);
+            }
+        });
+        Collections.shuffle(schedule, new Random(RANDOM_SEED));
+        return schedule;
+    }
+
+    private static Map<String, Integer> weights() {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : MIX.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(parts[0], Integer.parseInt(parts[1]));
+        }
+        return weights;
+    }
+
+    private void report(PrintStream out, long lagNanos) {
+        out.printf("%nCarga mixta a %.0f req/s durante %ds (%s), datos: %d usuarios, %d eventos%n",
+            RATE, SECONDS, MIX, users, events);
+        out.printf("  %-8s %9s %9s %9s %9s %9s %9s %9s %7s%n", "endpoint", "req/s", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms", "peticiones", "errores");
+        histograms.forEach((endpoint, histogram) -> out.printf("  %-8s %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9d %7d%n",
+            endpoint, histogram.getTotalCount() / (double) SECONDS,
+            ms(histogram, 50), ms(histogram, 95), ms(histogram, 99), ms(histogram, 99.9), histogram.getMaxValue() / 1e6,
+            histogram.getTotalCount(), errors.get(endpoint).get()));
+        out.printf("  retraso máximo del generador: %.2f ms%n%n", lagNanos / 1e6);
+    }
+
+    private void write(long startMillis) throws IOException {
+        Path dir = Path.of(System.getProperty("bench.results-dir", "target/benchmark-results"));
+        Files.createDirectories(dir);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("commit", commit());
+        summary.put("rate", RATE);
+        summary.put("seconds", SECONDS);
+        summary.put("mix", MIX);
+        summary.put("users", users);
+        summary.put("events", events);
+        summary.put("seed", RANDOM_SEED);
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        histograms.forEach((endpoint, histogram) -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", histogram.getTotalCount());
+            stats.put("throughput", histogram.getTotalCount() / (double) SECONDS);
+            stats.put("errors", errors.get(endpoint).get());
+            stats.put("p50Ms", ms(histogram, 50));
+            stats.put("p95Ms", ms(histogram, 95));
+            stats.put("p99Ms", ms(histogram, 99));
+            stats.put("p999Ms", ms(histogram, 99.9));
+            stats.put("maxMs", histogram.getMaxValue() / 1e6);
+            endpoints.put(endpoint, stats);
+        });
+        summary.put("endpoints", endpoints);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(dir.resolve("LoadTest.json").toFile(), summary);
+
+        try (PrintStream log = new PrintStream(dir.resolve("LoadTest.hlog").toFile(), StandardCharsets.UTF_8)) {
+            HistogramLogWriter writer = new HistogramLogWriter(log);
+            writer.outputComment("commit " + commit() + ", " + RATE + " req/s, mix " + MIX + ", valores en ns");
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(startMillis);
+            writer.setBaseTime(startMillis);
+            writer.outputLegend();
+            histograms.forEach((endpoint, histogram) -> {
+                histogram.setTag(endpoint);
+                writer.outputIntervalHistogram(histogram);
+            });
+        }
+    }
+
+    private static double ms(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    private static String commit() {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            String out = new String(git.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return git.waitFor(5, TimeUnit.SECONDS) && git.exitValue() == 0 ? out : "desconocido";
+        } catch (IOException | InterruptedException e) {
+            return "desconocido";
+        }
+    }
+}
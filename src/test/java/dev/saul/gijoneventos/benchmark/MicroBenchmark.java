@@ -0,0 +1,132 @@
+package dev.saul.gijoneventos.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Arnés mínimo de microbenchmarks en el mismo proceso que el test: iteraciones de calentamiento y de
+ * medida de duración fija, el resultado de cada llamada se consume para que el JIT no la elimine, y la
+ * puntuación es el tiempo medio en ns/op con un error al 99,9 %.
+ *
+ * No es JMH (no hay forks ni control de inlining ni de dead code más allá del sumidero), así que los
+ * números solo valen para comparar ejecuciones de este arnés entre sí. Se escriben en bench.results-dir
+ * (por defecto target/benchmark-results) en un JSON propio: la configuración de la ejecución y, por cada
+ * medida, la media, el error, las muestras de cada iteración y las métricas añadidas con secondary().
+ */
+final class MicroBenchmark {
+
+    private static final int WARMUP_ITERATIONS = Integer.getInteger("bench.warmupIterations", 3);
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 5);
+    private static final long ITERATION_NANOS = Long.getLong("bench.iterationMillis", 1000) * 1_000_000;
+    // Cuantil 0,9995 de la t de Student para n-1 grados de libertad (intervalo de confianza al 99,9 %)
+    private static final double[] T_9995 = { Double.NaN, 636.62, 31.60, 12.92, 8.61, 6.87, 5.96, 5.41, 5.04, 4.78, 4.59 };
+
+    private final String owner;
+    private final List<Map<String, Object>> results = new ArrayList<>();
+    // Cada resultado se guarda aquí: escapa del bucle y el JIT no puede eliminar la operación
+    private Object sink;
+
+    MicroBenchmark(Class<?> owner) {
+        this.owner = owner.getName();
+    }
+
+    // Mide operation y devuelve la media en ns/op; params se guardan junto al resultado
+    double run(String name, Map<String, String> params, Callable<?> operation) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iteration(operation);
+        }
+        double[] scores = new double[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            scores[i] = iteration(operation);
+        }
+        double mean = Arrays.stream(scores).average().orElse(Double.NaN);
+        double error = error(scores, mean);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("name", name);
+        result.put("params", params);
+        result.put("score", mean);
+        result.put("error", error);
+        result.put("unit", "ns/op");
+        result.put("samples", scores);
+        results.add(result);
+
+        String label = params.isEmpty() ? name : name + " " + params;
+        System.out.printf("  %-52s %14.1f ± %10.1f ns/op%n", label, mean, error);
+        return mean;
+    }
+
+    double run(String name, Callable<?> operation) throws Exception {
+        return run(name, Map.of(), operation);
+    }
+
+    // Métrica adicional del último resultado, medida una sola vez (tamaños, bytes reservados por operación...)
+    void secondary(String name, double value, String unit) {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> secondary = (Map<String, Object>) results.get(results.size() - 1)
+            .computeIfAbsent("metrics", k -> new LinkedHashMap<String, Object>());
+        Map<String, Object> metric = new LinkedHashMap<>();
+        metric.put("value", value);
+        metric.put("unit", unit);
+        secondary.put(name, metric);
+        System.out.printf("  %-52s %14.1f   %10s %s%n", "  " + name, value, "", unit);
+    }
+
+    // Escribe <results-dir>/<clase>.json y devuelve la ruta
+    Path write() throws IOException {
+        Path dir = Path.of(System.getProperty("bench.results-dir", "target/benchmark-results"));
+        Files.createDirectories(dir);
+        Path file = dir.resolve(owner.substring(owner.lastIndexOf('.') + 1) + ".json");
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("benchmark", owner);
+        run.put("jdkVersion", System.getProperty("java.version"));
+        run.put("vmName", System.getProperty("java.vm.name"));
+        run.put("warmupIterations", WARMUP_ITERATIONS);
+        run.put("measurementIterations", ITERATIONS);
+        run.put("iterationMillis", ITERATION_NANOS / 1_000_000);
+        run.put("results", results);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), run);
+        return file;
+    }
+
+    // ns/op de una iteración: se repite la operación hasta agotar el tiempo de la iteración, en tandas
+    // que se duplican mientras duren menos de 1 ms para que leer el reloj no pese en las operaciones cortas
+    private double iteration(Callable<?> operation) throws Exception {
+        long operations = 0;
+        long batch = 1;
+        long start = System.nanoTime();
+        long elapsed = 0;
+        while (elapsed < ITERATION_NANOS) {
+            for (long i = 0; i < batch; i++) {
+                sink = operation.call();
+            }
+            operations += batch;
+            long now = System.nanoTime() - start;
+            if (now - elapsed < 1_000_000) {
+                batch <<= 1;
+            }
+            elapsed = now;
+        }
+        return elapsed / (double) operations;
+    }
+
+    private static double error(double[] scores, double mean) {
+        int n = scores.length;
+        if (n < 2) {
+            return Double.NaN;
+        }
+        double variance = Arrays.stream(scores).map(score -> (score - mean) * (score - mean)).sum() / (n - 1);
+        double t = n - 1 < T_9995.length ? T_9995[n - 1] : 3.29;
+        return t * Math.sqrt(variance / n);
+    }
+}
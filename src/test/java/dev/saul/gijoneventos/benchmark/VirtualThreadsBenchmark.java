@@ -0,0 +1,189 @@
+package dev.saul.gijoneventos.benchmark;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import dev.saul.gijoneventos.GijoneventosApplication;
+
+/**
+ * Peticiones/segundo y p99 de GET /events/{id} con muchos clientes concurrentes, arrancando la
+ * aplicación dos veces: pool de hilos de plataforma de Tomcat frente a hilos virtuales con la puerta
+ * de admisión JDBC. Cada sentencia SQL espera bench.dbLatencyMs antes de ir a H2 para simular el
+ * viaje de ida y vuelta a MySQL.
+ * Se ejecuta con: mvn test -Pbenchmark (-Dbench.clients=N, -Dbench.dbLatencyMs=N, -Dbench.pool=N, -Dbench.seconds=N)
+ */
+@Tag("benchmark")
+class VirtualThreadsBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("bench.clients", 1000);
+    private static final int DB_LATENCY_MS = Integer.getInteger("bench.dbLatencyMs", 5);
+    private static final int POOL = Integer.getInteger("bench.pool", 50);
+    private static final int EVENTS = 100;
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("bench.warmupSeconds", 5));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("bench.seconds", 15));
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%nGET /events/{id} con %d clientes, pool JDBC de %d y %d ms por sentencia, durante %ds%n",
+            CLIENTS, POOL, DB_LATENCY_MS, MEASUREMENT.toSeconds());
+        System.out.printf("  hilos de plataforma : %s%n", platform);
+        System.out.printf("  hilos virtuales     : %s%n%n", virtual);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(GijoneventosApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new SlowDatabase()))
+                .run("--spring.profiles.active=h2",
+                    "--server.port=0",
+                    "--spring.jpa.show-sql=false",
+                    "--logging.level.root=WARN",
+                    "--spring.threads.virtual.enabled=" + virtualThreads,
+                    "--spring.datasource.hikari.maximum-pool-size=" + POOL,
+                    "--spring.datasource.hikari.connection-timeout=60000")) {
+            seed(context.getBean(JdbcTemplate.class));
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            drive(port, WARMUP);
+            return drive(port, MEASUREMENT);
+        }
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM event_attendees");
+        jdbcTemplate.update("DELETE FROM events");
+        jdbcTemplate.update("DELETE FROM roles_users");
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("DELETE FROM roles");
+        jdbcTemplate.update(
+            "INSERT INTO users (id_user, full_name, username, email, phone, password) VALUES (1, 'Bench User', 'bench', 'bench@example.com', '600000000', 'x')");
+        Timestamp date = Timestamp.valueOf(LocalDateTime.now().plusDays(7));
+        for (long id = 1; id <= EVENTS; id++) {
+            jdbcTemplate.update(
+                "INSERT INTO events (id_event, title, description, date, location, organizer_id, max_attendees, attendee_count) VALUES (?, ?, 'Desc', ?, 'Gijón', 1, 100, 0)",
+                id, "Evento " + id, date);
+        }
+    }
+
+    // Cada cliente encadena peticiones síncronas hasta que acaba el tiempo. Los clientes usan hilos
+    // de plataforma para no competir con el servidor por los hilos portadores en la ronda virtual.
+    private Result drive(int port, Duration duration) throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Future<ClientResult>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(CLIENTS)) {
+            for (int i = 0; i < CLIENTS; i++) {
+                results.add(executor.submit(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    int errors = 0;
+                    while (running.get()) {
+                        long id = ThreadLocalRandom.current().nextLong(1, EVENTS + 1);
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(
+                                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/events/" + id)).GET().build(),
+                                HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (IOException e) {
+                            status = -1;
+                        }
+                        if (status != 200) {
+                            errors++;
+                            continue;
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                    return new ClientResult(Arrays.copyOf(samples, count), errors);
+                }));
+            }
+            Thread.sleep(duration.toMillis());
+            running.set(false);
+        }
+        long errors = 0;
+        List<long[]> all = new ArrayList<>();
+        for (Future<ClientResult> result : results) {
+            errors += result.get().errors();
+            all.add(result.get().latencies());
+        }
+        long[] merged = all.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(merged, errors, duration);
+    }
+
+    private record ClientResult(long[] latencies, int errors) {
+    }
+
+    private record Result(long[] sorted, long errors, Duration duration) {
+
+        @Override
+        public String toString() {
+            return String.format("%9.1f req/s   p50 %7.1f ms   p99 %7.1f ms   errores %d",
+                sorted.length / (double) duration.toSeconds(), p(0.5), p(0.99), errors);
+        }
+
+        private double p(double quantile) {
+            return sorted.length == 0 ? 0 : sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))] / 1e6;
+        }
+    }
+
+    // Retraso fijo antes de preparar o ejecutar cada sentencia, sobre el DataSource de Hikari
+    private static final class SlowDatabase implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || DB_LATENCY_MS == 0) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    Connection connection = super.getConnection();
+                    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                        (proxy, method, args) -> {
+                            if (method.getName().startsWith("prepare") || method.getName().equals("createStatement")) {
+                                Thread.sleep(DB_LATENCY_MS);
+                            }
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        });
+                }
+            };
+        }
+    }
+}
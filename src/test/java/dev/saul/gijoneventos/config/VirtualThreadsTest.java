@@ -0,0 +1,90 @@
+package dev.saul.gijoneventos.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// BD propia: al cerrarse, el contexto borra su esquema (create-drop) y no debe ser el de testdb, que comparten
+// los IntegrationTest
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:virtualthreadstest",
+    "spring.threads.virtual.enabled=true",
+    "datasource.admission.max-concurrent=2",
+    "datasource.admission.timeout=PT0.2S",
+    "diagnostics.virtual-threads.pinned-threshold=PT0.005S"
+})
+@ActiveProfiles("h2")
+@DirtiesContext
+class VirtualThreadsTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void admissionGateCapsBorrowedConnections() throws Exception {
+        assertThat(dataSource).isInstanceOf(AdmissionControlDataSource.class);
+
+        try (Connection first = dataSource.getConnection()) {
+            Connection second = dataSource.getConnection();
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+            assertThat(meterRegistry.get("datasource.admission.rejected").functionCounter().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("datasource.admission.in-use").gauge().value()).isEqualTo(2);
+
+            // Un segundo close() no devuelve otro permiso
+            second.close();
+            second.close();
+            try (Connection third = dataSource.getConnection()) {
+                assertThat(third.isValid(1)).isTrue();
+                assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+            }
+        }
+        assertThat(meterRegistry.get("datasource.admission.in-use").gauge().value()).isZero();
+    }
+
+    @Test
+    void asyncWorkRunsOnVirtualThreads() throws Exception {
+        assertThat(applicationTaskExecutor.submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void pinningIsReportedAsAMetric() throws Exception {
+        Object monitor = new Object();
+        // Dormir dentro de un synchronized fija el hilo virtual a su portador
+        Thread pinned = Thread.ofVirtual().start(() -> {
+            synchronized (monitor) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        pinned.join();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("jvm.threads.virtual.pinned").timer().count() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(meterRegistry.get("jvm.threads.virtual.pinned").timer().count()).isPositive();
+    }
+}
@@ -0,0 +1,178 @@
+package dev.saul.gijoneventos.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import dev.saul.gijoneventos.IntegrationTest;
+
+// El despachador está aparcado (IntegrationTest) y el test llama a dispatch() a mano. Las escrituras van
+// en el hilo de cada suscriptor, así que el contenido se espera con await()
+class AttendanceStreamTest extends IntegrationTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private AttendanceStream attendanceStream;
+
+    @BeforeEach
+    void seed() {
+        insertUsers(5);
+        for (long id = 1; id <= 2; id++) {
+            insertEvent(id, "Evento " + id, LocalDateTime.of(2030, 1, 1, 10, 0), 1, 10);
+        }
+    }
+
+    @Test
+    void burstOfJoinsIsCoalescedIntoOneMessage() throws Exception {
+        MvcResult stream = subscribe(1);
+        await().untilAsserted(() -> assertThat(stream.getResponse().getContentAsString())
+            .isEqualTo("event:attendance\ndata:{\"eventId\":1,\"attendeeCount\":0,\"maxAttendees\":10,\"remaining\":10}\n\n"));
+
+        eventService.joinEvent(1L, 2L);
+        eventService.joinEvent(1L, 3L);
+        eventService.joinEvent(1L, 4L);
+        eventService.leaveEvent(1L, 4L);
+        attendanceStream.dispatch();
+        // Sin cambios nuevos no se envía nada
+        attendanceStream.dispatch();
+
+        await().untilAsserted(() -> assertThat(stream.getResponse().getContentAsString())
+            .endsWith("data:{\"eventId\":1,\"attendeeCount\":2,\"maxAttendees\":10,\"remaining\":8}\n\n"));
+        assertThat(stream.getResponse().getContentAsString().split("event:attendance", -1)).hasSize(3);
+    }
+
+    @Test
+    void everySubscriberOfTheEventGetsTheUpdate() throws Exception {
+        MvcResult first = subscribe(1);
+        MvcResult second = subscribe(1);
+        MvcResult other = subscribe(2);
+
+        eventService.joinEvent(1L, 2L);
+        attendanceStream.dispatch();
+
+        await().untilAsserted(() -> {
+            assertThat(first.getResponse().getContentAsString()).contains("\"attendeeCount\":1");
+            assertThat(second.getResponse().getContentAsString()).contains("\"attendeeCount\":1");
+            assertThat(other.getResponse().getContentAsString()).startsWith("event:attendance");
+        });
+        assertThat(other.getResponse().getContentAsString()).doesNotContain("\"attendeeCount\":1");
+    }
+
+    @Test
+    void ticketDropCountsComeFromTheLedger() throws Exception {
+        eventService.setTicketDrop(2L, true);
+        MvcResult stream = subscribe(2);
+
+        eventService.joinEvent(2L, 2L);
+        eventService.joinEvent(2L, 3L);
+        attendanceStream.dispatch();
+
+        await().untilAsserted(() -> assertThat(stream.getResponse().getContentAsString())
+            .endsWith("\"attendeeCount\":2,\"maxAttendees\":10,\"remaining\":8}\n\n"));
+        eventService.setTicketDrop(2L, false);
+    }
+
+    @Test
+    void deletingTheEventClosesItsStreams() throws Exception {
+        MvcResult stream = subscribe(2);
+        int before = attendanceStream.subscribers();
+
+        eventService.deleteEvent(2L);
+
+        await().untilAsserted(() -> assertThat(stream.getResponse().getContentAsString()).endsWith("event:deleted\ndata:2\n\n"));
+        assertThat(attendanceStream.subscribers()).isLessThan(before);
+    }
+
+    @Test
+    void aSubscriberThatStopsReadingIsDroppedWithoutHoldingUpTheOthers() throws Exception {
+        StalledEmitter stalled = new StalledEmitter();
+        attendanceStream.subscribe(1L, stalled);
+        MvcResult healthy = subscribe(1);
+        int subscribers = attendanceStream.subscribers();
+        long dropped = attendanceStream.dropped();
+        try {
+            // El primer mensaje deja atascado al escritor del suscriptor parado; los siguientes llenan su cola (4)
+            for (int round = 0; round < 6; round++) {
+                if (round % 2 == 0) {
+                    eventService.joinEvent(1L, 2L);
+                } else {
+                    eventService.leaveEvent(1L, 2L);
+                }
+                attendanceStream.dispatch();
+            }
+
+            await().untilAsserted(() -> assertThat(healthy.getResponse().getContentAsString().split("event:attendance", -1)).hasSize(8));
+            assertThat(attendanceStream.dropped()).isEqualTo(dropped + 1);
+            assertThat(attendanceStream.subscribers()).isEqualTo(subscribers - 1);
+        } finally {
+            stalled.release.countDown();
+        }
+    }
+
+    @Test
+    void aWriteStuckPastTheTimeoutIsDroppedOnTheNextHeartbeat() throws Exception {
+        StalledEmitter stalled = new StalledEmitter();
+        attendanceStream.subscribe(1L, stalled);
+        MvcResult healthy = subscribe(1);
+        int subscribers = attendanceStream.subscribers();
+        long dropped = attendanceStream.dropped();
+        try {
+            eventService.joinEvent(1L, 2L);
+            attendanceStream.dispatch();
+            stalled.writing.await();
+            Thread.sleep(300);
+            attendanceStream.heartbeat();
+
+            assertThat(attendanceStream.dropped()).isEqualTo(dropped + 1);
+            assertThat(attendanceStream.subscribers()).isEqualTo(subscribers - 1);
+            await().untilAsserted(() -> assertThat(healthy.getResponse().getContentAsString()).endsWith(": ping\n\n"));
+        } finally {
+            stalled.release.countDown();
+        }
+    }
+
+    // Cliente que deja de leer tras el aforo inicial: las escrituras siguientes se quedan bloqueadas, como con
+    // el búfer TCP lleno, hasta release
+    private static final class StalledEmitter extends SseEmitter {
+
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private boolean subscribed;
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (!subscribed) {
+                subscribed = true;
+                return;
+            }
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Conexión cerrada");
+        }
+    }
+
+    private MvcResult subscribe(long eventId) throws Exception {
+        return mockMvc.perform(get("/api/v1/events/" + eventId + "/stream"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    }
+}
@@ -0,0 +1,96 @@
+package dev.saul.gijoneventos.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.saul.gijoneventos.IntegrationTest;
+
+class BinaryFormatsTest extends IntegrationTest {
+
+    private static final String EVENTS = "/api/v1/events";
+    private static final List<MediaType> FORMATS = List.of(
+        MediaType.APPLICATION_CBOR, MediaType.parseMediaType("application/x-jackson-smile"));
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seed() {
+        insertUsers(5);
+        List<Object[]> events = new ArrayList<>();
+        for (long id = 1; id <= 25; id++) {
+            events.add(new Object[] { id, "Evento " + id, Timestamp.valueOf(LocalDateTime.of(2030, 1, 1, 10, 0).plusDays(id)), 1 + id % 5 });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO events (id_event, title, description, date, location, organizer_id, max_attendees, attendee_count) "
+                + "VALUES (?, ?, 'Desc', ?, 'Gijón', ?, 100, 0)", events);
+        jdbcTemplate.update("INSERT INTO event_attendees (event_id, user_id) SELECT e.id_event, u.id_user FROM events e, users u WHERE u.id_user > 3");
+        jdbcTemplate.update("UPDATE events SET attendee_count = 2");
+    }
+
+    @Test
+    void binaryPagesDecodeToTheSameEventPage() throws Exception {
+        EventPageDTOResponse json = objectMapper.readValue(
+            mockMvc.perform(get(EVENTS).param("size", "25")).andReturn().getResponse().getContentAsByteArray(),
+            EventPageDTOResponse.class);
+
+        for (MediaType format : FORMATS) {
+            MvcResult result = mockMvc.perform(get(EVENTS).param("size", "25").accept(format))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(format))
+                .andReturn();
+            EventPageDTOResponse binary = decoder(format).readValue(result.getResponse().getContentAsByteArray(), EventPageDTOResponse.class);
+
+            JsonNode expected = objectMapper.valueToTree(json);
+            JsonNode actual = objectMapper.valueToTree(binary);
+            assertThat(actual).as(format.toString()).isEqualTo(expected);
+            assertThat(binary.items()).hasSize(25);
+        }
+    }
+
+    @Test
+    void eachFormatHasItsOwnEtag() throws Exception {
+        String jsonEtag = mockMvc.perform(get(EVENTS + "/1")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        for (MediaType format : FORMATS) {
+            String binaryEtag = mockMvc.perform(get(EVENTS + "/1").accept(format))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            assertThat(binaryEtag).isNotEqualTo(jsonEtag);
+            mockMvc.perform(get(EVENTS + "/1").accept(format).header(HttpHeaders.IF_NONE_MATCH, binaryEtag))
+                .andExpect(status().isNotModified());
+            mockMvc.perform(get(EVENTS + "/1").accept(format).header(HttpHeaders.IF_NONE_MATCH, jsonEtag))
+                .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void unwritableFormatIsNotAcceptableBeforeAnyEtagCheck() throws Exception {
+        String jsonEtag = mockMvc.perform(get(EVENTS + "/1")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(EVENTS + "/1").accept(MediaType.APPLICATION_XML).header(HttpHeaders.IF_NONE_MATCH, jsonEtag))
+            .andExpect(status().isNotAcceptable());
+    }
+
+    private static ObjectMapper decoder(MediaType format) {
+        return MediaType.APPLICATION_CBOR.equals(format) ? Jackson2ObjectMapperBuilder.cbor().build() : Jackson2ObjectMapperBuilder.smile().build();
+    }
+}
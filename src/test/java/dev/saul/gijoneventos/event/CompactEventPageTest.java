@@ -0,0 +1,121 @@
+package dev.saul.gijoneventos.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.saul.gijoneventos.IntegrationTest;
+import dev.saul.gijoneventos.metrics.SqlStatistics;
+
+class CompactEventPageTest extends IntegrationTest {
+
+    private static final String EVENTS = "/api/v1/events";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seed() {
+        insertUsers(10);
+        // 30 eventos de solo 3 organizadores; el 1 sin coordenadas
+        List<Object[]> events = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) {
+            events.add(new Object[] { id, "Evento " + id, Timestamp.valueOf(LocalDateTime.of(2030, 1, 1, 10, 0).plusDays(id)),
+                1 + id % 3, id == 1 ? null : 43.54, id == 1 ? null : -5.66 });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO events (id_event, title, description, date, location, organizer_id, max_attendees, attendee_count, latitude, longitude) "
+                + "VALUES (?, ?, 'Desc', ?, 'Gijón', ?, 100, 0, ?, ?)", events);
+        jdbcTemplate.update("INSERT INTO event_attendees (event_id, user_id) SELECT e.id_event, u.id_user FROM events e, users u "
+            + "WHERE u.id_user > 6 AND e.id_event <= 10");
+        jdbcTemplate.update("UPDATE events SET attendee_count = 4 WHERE id_event <= 10");
+    }
+
+    @Test
+    void compactPagesCarryTheSameEventsWithOrganizersOnce() throws Exception {
+        JsonNode regular = json(mockMvc.perform(get(EVENTS).param("size", "30")).andExpect(status().isOk()).andReturn());
+        MvcResult result = mockMvc.perform(get(EVENTS).param("size", "30").accept(CompactEventPageConverter.MEDIA_TYPE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(CompactEventPageConverter.MEDIA_TYPE))
+            .andReturn();
+        JsonNode compact = json(result);
+
+        assertThat(compact.get("organizers").size()).isEqualTo(3);
+        assertThat(compact.get("organizers").get("2").get("username").asText()).isEqualTo("user2");
+        assertThat(compact.get("organizers").get("2").has("role")).isFalse();
+        assertThat(compact.get("items").size()).isEqualTo(30);
+        for (int i = 0; i < 30; i++) {
+            JsonNode expected = regular.get("items").get(i);
+            JsonNode actual = compact.get("items").get(i);
+            for (String field : new String[] { "id", "title", "description", "date", "location", "attendeeCount", "maxAttendees" }) {
+                assertThat(actual.get(field)).as(field).isEqualTo(expected.get(field));
+            }
+            assertThat(actual.get("organizerId")).isEqualTo(expected.get("organizer").get("id"));
+            assertThat(objectMapper.convertValue(actual.get("attendees"), long[].class))
+                .containsExactlyInAnyOrder(objectMapper.convertValue(expected.get("attendees"), long[].class));
+            assertThat(actual.has("latitude")).isEqualTo(expected.has("latitude"));
+        }
+        assertThat(compact.get("items").get(0).get("attendees").toString()).isEqualTo("[7,8,9,10]");
+        assertThat(compact.get("nextCursor").isNull()).isTrue();
+        assertThat(result.getResponse().getContentAsByteArray().length)
+            .isLessThan(objectMapper.writeValueAsBytes(regular).length * 3 / 4);
+    }
+
+    @Test
+    void compactPagesCostTheSameStatementsAndCanLeaveAttendeesOut() throws Exception {
+        try (SqlStatistics.Scope sql = SqlStatistics.open()) {
+            JsonNode compact = json(mockMvc.perform(get(EVENTS).param("size", "5").param("includeAttendees", "false")
+                    .accept(CompactEventPageConverter.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andReturn());
+            assertThat(compact.get("items").get(0).has("attendees")).isFalse();
+            assertThat(compact.get("nextCursor").isTextual()).isTrue();
+            // Solo la página: la versión del catálogo está en memoria y no se piden asistentes
+            assertThat(sql.statements()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void eachRepresentationHasItsOwnEtag() throws Exception {
+        MvcResult regular = mockMvc.perform(get(EVENTS).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+            .andReturn();
+        MvcResult compact = mockMvc.perform(get(EVENTS).accept(CompactEventPageConverter.MEDIA_TYPE))
+            .andExpect(status().isOk())
+            .andReturn();
+        String regularEtag = regular.getResponse().getHeader(HttpHeaders.ETAG);
+        String compactEtag = compact.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(compactEtag).isNotEqualTo(regularEtag);
+
+        mockMvc.perform(get(EVENTS).accept(CompactEventPageConverter.MEDIA_TYPE).header(HttpHeaders.IF_NONE_MATCH, compactEtag))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(get(EVENTS).accept(CompactEventPageConverter.MEDIA_TYPE).header(HttpHeaders.IF_NONE_MATCH, regularEtag))
+            .andExpect(status().isOk());
+        // Sin Accept (o */*) sigue saliendo el JSON de siempre
+        mockMvc.perform(get(EVENTS))
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(header().string(HttpHeaders.ETAG, regularEtag));
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsByteArray());
+    }
+}
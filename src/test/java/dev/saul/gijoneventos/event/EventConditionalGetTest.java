@@ -0,0 +1,131 @@
+package dev.saul.gijoneventos.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+
+import dev.saul.gijoneventos.IntegrationTest;
+import jakarta.persistence.EntityManagerFactory;
+
+class EventConditionalGetTest extends IntegrationTest {
+
+    private static final String EVENT = "/api/v1/events/1";
+    private static final String EVENTS = "/api/v1/events";
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seed() {
+        insertUsers(2);
+        for (long id = 1; id <= 3; id++) {
+            insertEvent(id, "Evento " + id, LocalDateTime.of(2030, 1, (int) id, 10, 0), 1, 10);
+        }
+        jdbcTemplate.update("ALTER TABLE events ALTER COLUMN id_event RESTART WITH 100");
+    }
+
+    @Test
+    void eventAnswers304WithoutLoadingIt() throws Exception {
+        MvcResult first = mockMvc.perform(get(EVENT))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+            .andExpect(jsonPath("$.title").value("Evento 1"))
+            .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"").doesNotStartWith("W/");
+
+        Statistics statistics = statistics();
+        mockMvc.perform(get(EVENT).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag))
+            .andExpect(content().string(""));
+        // Solo la lectura de version / last_modified
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        mockMvc.perform(get(EVENT).header(HttpHeaders.IF_MODIFIED_SINCE, first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void joinLeaveAndUpdateChangeTheEventETag() throws Exception {
+        String initial = etag(EVENT);
+
+        eventService.joinEvent(1L, 2L);
+        String joined = etag(EVENT);
+        mockMvc.perform(get(EVENT).header(HttpHeaders.IF_NONE_MATCH, initial))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.attendeeCount").value(1));
+
+        eventService.leaveEvent(1L, 2L);
+        String left = etag(EVENT);
+
+        eventService.updateEvent(1L, new EventDTORequest("Editado", "Desc", "2030-01-01T10:00:00", "Gijón", 10, null, null));
+        mockMvc.perform(get(EVENT).header(HttpHeaders.IF_NONE_MATCH, left))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Editado"));
+
+        assertThat(joined).isNotEqualTo(initial);
+        assertThat(left).isNotIn(initial, joined);
+        assertThat(etag(EVENT)).isNotIn(initial, joined, left);
+    }
+
+    @Test
+    void collectionIsValidatedWithoutQueries() throws Exception {
+        String etag = etag(EVENTS);
+
+        Statistics statistics = statistics();
+        mockMvc.perform(get(EVENTS).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+        // Versión del catálogo en memoria (EventCatalogVersion): ni siquiera un agregado
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        // Un cambio en cualquier evento invalida el listado
+        eventService.joinEvent(3L, 2L);
+        mockMvc.perform(get(EVENTS).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[2].attendeeCount").value(1));
+        String joined = etag(EVENTS);
+
+        eventService.deleteEvent(2L);
+        String deleted = etag(EVENTS);
+        assertThat(deleted).isNotIn(etag, joined);
+
+        eventService.updateEvent(1L, new EventDTORequest("Editado", "Desc", "2030-01-01T10:00:00", "Gijón", 10, null, null));
+        assertThat(etag(EVENTS)).isNotIn(etag, joined, deleted);
+    }
+
+    @Test
+    void upcomingListingIsNotConditional() throws Exception {
+        mockMvc.perform(get(EVENTS).param("filter", "UPCOMING"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    private String etag(String path) throws Exception {
+        return mockMvc.perform(get(path)).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,102 @@
+package dev.saul.gijoneventos.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.saul.gijoneventos.IntegrationTest;
+
+class EventExportTest extends IntegrationTest {
+
+    private static final int EVENTS = 2500;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seed() {
+        insertUser(1, "admin", "password", "ROLE_ADMIN");
+        insertUser(2, "donald", "password", "ROLE_USER");
+
+        List<Object[]> events = new ArrayList<>();
+        List<Object[]> attendees = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        for (long id = 1; id <= EVENTS; id++) {
+            events.add(new Object[] { id, "Evento " + id, "Descripción, con coma", Timestamp.valueOf(start.plusHours(id)), "Gijón", 1, 10, 2 });
+            attendees.add(new Object[] { id, 1 });
+            attendees.add(new Object[] { id, 2 });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO events (id_event, title, description, date, location, organizer_id, max_attendees, attendee_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+            events);
+        jdbcTemplate.batchUpdate("INSERT INTO event_attendees (event_id, user_id) VALUES (?, ?)", attendees);
+    }
+
+    @Test
+    void exportsEveryEventAsNdjson() throws Exception {
+        String body = export("/api/v1/events/export", "application/x-ndjson");
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(EVENTS);
+        assertThat(body).endsWith("\n");
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("id").asLong()).isEqualTo(1);
+        assertThat(first.get("organizerUsername").asText()).isEqualTo("admin");
+        assertThat(first.get("attendeeCount").asInt()).isEqualTo(2);
+        assertThat(objectMapper.readTree(lines[EVENTS - 1]).get("id").asLong()).isEqualTo(EVENTS);
+    }
+
+    @Test
+    void exportsAttendanceAsCsv() throws Exception {
+        String body = export("/api/v1/events/export?format=CSV&dataset=ATTENDANCE", "text/csv;charset=UTF-8");
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(EVENTS * 2 + 1);
+        assertThat(lines[0]).isEqualTo("eventId,userId,username");
+        assertThat(lines[1]).isEqualTo("1,1,admin");
+        assertThat(lines[2]).isEqualTo("1,2,donald");
+    }
+
+    @Test
+    void csvEventsQuoteFieldsWithSeparators() throws Exception {
+        String body = export("/api/v1/events/export?format=CSV", "text/csv;charset=UTF-8");
+
+        String[] lines = body.split("\n");
+        assertThat(lines[0]).startsWith("id,title,description,date,location,maxAttendees,organizerId");
+        assertThat(lines[1]).startsWith("1,\"Evento 1\",\"Descripción, con coma\",2030-01-01T11:00:00,Gijón,10,1,");
+    }
+
+    @Test
+    void exportRequiresAdmin() throws Exception {
+        mockMvc.perform(get("/api/v1/events/export").with(httpBasic("donald", "password")))
+            .andExpect(status().isForbidden());
+    }
+
+    private String export(String url, String contentType) throws Exception {
+        MvcResult started = mockMvc.perform(get(url).with(httpBasic("admin", "password")))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", contentType))
+            .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,85 @@
+package dev.saul.gijoneventos.event;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import dev.saul.gijoneventos.IntegrationTest;
+
+class EventImportTest extends IntegrationTest {
+
+    @BeforeEach
+    void seed() {
+        insertUser(1, "admin", "password", "ROLE_ADMIN");
+        insertUser(2, "donald", "password", "ROLE_USER");
+    }
+
+    @Test
+    void importsValidJsonRowsAndReportsTheInvalidOnes() throws Exception {
+        String body = """
+            [
+              {"title": "Concierto", "description": "Jazz", "date": "2030-06-01T20:00:00", "location": "Gijón", "maxAttendees": 100},
+              {"title": "", "description": "Sin título", "date": "2030-06-02T20:00:00", "location": "Gijón", "maxAttendees": 10},
+              {"title": "Feria", "description": "Libros", "date": "mañana", "location": "Gijón", "maxAttendees": 10},
+              {"title": "Teatro", "description": "Obra", "date": "2030-06-03T20:00:00", "location": "Gijón", "maxAttendees": "muchos"},
+              {"title": "Maratón", "description": "42k", "date": "2030-06-04T09:00:00", "location": "Gijón", "maxAttendees": 500},
+              {"title": "Cine", "description": "Verano", "date": "2030-06-05T22:00:00", "location": "Gijón", "maxAttendees": 50}
+            ]""";
+
+        mockMvc.perform(post("/api/v1/events/import").with(httpBasic("admin", "password"))
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported", equalTo(3)))
+            .andExpect(jsonPath("$.failed", equalTo(3)))
+            .andExpect(jsonPath("$.errors[0].row", equalTo(2)))
+            .andExpect(jsonPath("$.errors[0].message", equalTo("El título es obligatorio")))
+            .andExpect(jsonPath("$.errors[1].row", equalTo(3)))
+            .andExpect(jsonPath("$.errors[1].message", containsString("Fecha inválida")))
+            .andExpect(jsonPath("$.errors[2].row", equalTo(4)))
+            .andExpect(jsonPath("$.errors[2].message", containsString("Formato inválido")));
+
+        assertThat(jdbcTemplate.queryForList("SELECT title FROM events ORDER BY date", String.class))
+            .containsExactly("Concierto", "Maratón", "Cine");
+        // El organizador queda apuntado, como en POST /events
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_attendees WHERE user_id = 1", Integer.class))
+            .isEqualTo(3);
+        assertThat(jdbcTemplate.queryForList("SELECT attendee_count FROM events", Integer.class)).containsOnly(1);
+    }
+
+    @Test
+    void importsCsvWithQuotedFieldsForAnotherOrganizer() throws Exception {
+        String body = """
+            title,description,date,location,maxAttendees
+            "Ruta, sidra y gaitas","Paseo \"\"guiado\"\"\",2030-07-01T11:00:00,Cimadevilla,30
+            Mercado,Artesanía,2030-07-02T10:00:00,Plaza Mayor,0
+            """;
+
+        mockMvc.perform(post("/api/v1/events/import").param("organizerId", "2").with(httpBasic("admin", "password"))
+                .contentType("text/csv").content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported", equalTo(1)))
+            .andExpect(jsonPath("$.errors[0].row", equalTo(2)))
+            .andExpect(jsonPath("$.errors[0].message", equalTo("El número de asistentes debe ser mayor a 0")));
+
+        assertThat(jdbcTemplate.queryForMap("SELECT title, description, organizer_id FROM events"))
+            .containsEntry("TITLE", "Ruta, sidra y gaitas")
+            .containsEntry("DESCRIPTION", "Paseo \"guiado\"")
+            .containsEntry("ORGANIZER_ID", 2L);
+    }
+
+    @Test
+    void importRequiresAdmin() throws Exception {
+        mockMvc.perform(post("/api/v1/events/import").with(httpBasic("donald", "password"))
+                .contentType(MediaType.APPLICATION_JSON).content("[]"))
+            .andExpect(status().isForbidden());
+    }
+}
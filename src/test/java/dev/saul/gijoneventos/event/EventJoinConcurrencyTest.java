@@ -0,0 +1,133 @@
+package dev.saul.gijoneventos.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import dev.saul.gijoneventos.IntegrationTest;
+
+class EventJoinConcurrencyTest extends IntegrationTest {
+
+    private static final int USERS = 3000;
+    private static final int CAPACITY = 250;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private EventService eventService;
+
+    @BeforeEach
+    void seed() {
+        insertUsers(USERS);
+        insertEvent(1, "Concierto", LocalDateTime.of(2030, 1, 1, 20, 0), 1, CAPACITY);
+    }
+
+    @Test
+    void concurrentJoinsNeverOverbook() throws Exception {
+        AtomicInteger joined = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(USERS, userId -> {
+            try {
+                eventService.joinEvent(1L, userId);
+                joined.incrementAndGet();
+            } catch (IllegalStateException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertThat(joined.get()).isEqualTo(CAPACITY);
+        assertThat(rejected.get()).isEqualTo(USERS - CAPACITY);
+        assertThat(attendeeRows()).isEqualTo(CAPACITY);
+        assertThat(attendeeCount()).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void concurrentJoinsAndLeavesKeepTheCounterInSync() throws Exception {
+        // La mitad de los usuarios se apunta y se va; la otra mitad solo se apunta
+        runConcurrently(USERS, userId -> {
+            try {
+                eventService.joinEvent(1L, userId);
+                if (userId % 2 == 0) {
+                    eventService.leaveEvent(1L, userId);
+                }
+            } catch (IllegalStateException e) {
+                // completo
+            }
+        });
+
+        assertThat(attendeeCount()).isEqualTo(attendeeRows());
+        assertThat(attendeeCount()).isLessThanOrEqualTo(CAPACITY);
+    }
+
+    @Test
+    void repeatedJoinsByTheSameUserTakeOneSeat() throws Exception {
+        runConcurrently(THREADS, ignored -> eventService.joinEvent(1L, 42L));
+
+        assertThat(attendeeRows()).isEqualTo(1);
+        assertThat(attendeeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void fullEventRejectsJoinsAndFreesSeatsOnLeave() {
+        jdbcTemplate.update("UPDATE events SET max_attendees = 1 WHERE id_event = 1");
+        eventService.joinEvent(1L, 1L);
+
+        assertThatThrownBy(() -> eventService.joinEvent(1L, 2L))
+            .isInstanceOf(IllegalStateException.class);
+
+        eventService.leaveEvent(1L, 1L);
+        eventService.leaveEvent(1L, 1L);
+        eventService.joinEvent(1L, 2L);
+
+        assertThat(attendeeRows()).isEqualTo(1);
+        assertThat(attendeeCount()).isEqualTo(1);
+    }
+
+    private void runConcurrently(int tasks, UserTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long userId = 1; userId <= tasks; userId++) {
+                long id = userId;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(id);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int attendeeRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_attendees WHERE event_id = 1", Integer.class);
+    }
+
+    private int attendeeCount() {
+        return jdbcTemplate.queryForObject("SELECT attendee_count FROM events WHERE id_event = 1", Integer.class);
+    }
+
+    @FunctionalInterface
+    private interface UserTask {
+        void run(long userId) throws Exception;
+    }
+}
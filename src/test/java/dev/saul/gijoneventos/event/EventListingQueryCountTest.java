@@ -0,0 +1,105 @@
+package dev.saul.gijoneventos.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import dev.saul.gijoneventos.IntegrationTest;
+import jakarta.persistence.EntityManagerFactory;
+
+class EventListingQueryCountTest extends IntegrationTest {
+
+    private static final int ORGANIZERS = 50;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        insertUsers(ORGANIZERS);
+        grantToAllUsers("ROLE_USER");
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void listingCostsTheSameNumberOfStatementsForTenOrAThousandEvents() {
+        seedEvents(10);
+        long small = countStatements(10, true);
+
+        seedEvents(1000);
+        long large = countStatements(1000, true);
+
+        // proyección (eventos + organizador + nº asistentes) e ids de asistentes
+        assertThat(large).isEqualTo(2);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void countsOnlyListingIsASingleStatement() {
+        seedEvents(1000);
+
+        assertThat(countStatements(1000, false)).isEqualTo(1);
+    }
+
+    @Test
+    void listingDoesNotHydrateEntities() {
+        seedEvents(1000);
+        countStatements(1000, true);
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    private long countStatements(int expectedEvents, boolean includeAttendees) {
+        statistics.clear();
+        EventPageDTOResponse page = eventService.findPage(EventFilter.ALL, null, EventRange.ALL, null, 1000, includeAttendees);
+
+        assertThat(page.items()).hasSize(expectedEvents);
+        assertThat(page.items()).allSatisfy(event -> {
+            assertThat(event.getOrganizer().getUsername()).isNotBlank();
+            assertThat(event.getAttendeeCount()).isEqualTo(3);
+            if (includeAttendees) {
+                assertThat(event.getAttendees()).hasSize(3);
+            } else {
+                assertThat(event.getAttendees()).isNull();
+            }
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedEvents(int count) {
+        jdbcTemplate.update("DELETE FROM event_attendees");
+        jdbcTemplate.update("DELETE FROM events");
+
+        List<Object[]> events = new ArrayList<>();
+        List<Object[]> attendees = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 0);
+        for (long id = 1; id <= count; id++) {
+            long organizer = (id % ORGANIZERS) + 1;
+            events.add(new Object[] { id, "Evento " + id, "Descripción", Timestamp.valueOf(start.plusHours(id)),
+                "Gijón", organizer, 100, 3 });
+            for (long offset = 0; offset < 3; offset++) {
+                attendees.add(new Object[] { id, ((id + offset) % ORGANIZERS) + 1 });
+            }
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO events (id_event, title, description, date, location, organizer_id, max_attendees, attendee_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+            events);
+        jdbcTemplate.batchUpdate("INSERT INTO event_attendees (event_id, user_id) VALUES (?, ?)", attendees);
+    }
+}
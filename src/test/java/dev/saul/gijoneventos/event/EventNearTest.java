@@ -0,0 +1,160 @@
+package dev.saul.gijoneventos.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.lang.reflect.Proxy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import dev.saul.gijoneventos.IntegrationTest;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+
+class EventNearTest extends IntegrationTest {
+
+    // Plaza Mayor de Gijón
+    private static final double LAT = 43.5453;
+    private static final double LON = -5.6619;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private GeoGridIndex geoIndex;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seed() {
+        insertUsers(1);
+        insert(1, LAT, LON);              // Plaza Mayor
+        insert(2, 43.5420, -5.6550);      // Playa de San Lorenzo, ~0.7 km
+        insert(3, 43.5260, -5.6110);      // Laboral, ~4.6 km
+        insert(4, 43.3614, -5.8494);      // Oviedo, ~25 km
+        insert(5, null, null);            // sin coordenadas
+        jdbcTemplate.update("ALTER TABLE events ALTER COLUMN id_event RESTART WITH 100");
+        geoIndex.rebuild();
+    }
+
+    @Test
+    void nearOrdersByDistanceWithinTheRadius() throws Exception {
+        mockMvc.perform(get("/api/v1/events/near").param("lat", "" + LAT).param("lon", "" + LON).param("radiusKm", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].id", contains(1, 2)))
+            .andExpect(jsonPath("$[0].distanceKm").value(0.0))
+            .andExpect(jsonPath("$[0].title").value("Evento 1"))
+            .andExpect(jsonPath("$[1].latitude").value(43.5420));
+
+        // Radio por defecto (5 km)
+        mockMvc.perform(get("/api/v1/events/near").param("lat", "" + LAT).param("lon", "" + LON))
+            .andExpect(jsonPath("$[*].id", contains(1, 2, 3)));
+
+        mockMvc.perform(get("/api/v1/events/near").param("lat", "" + LAT).param("lon", "" + LON).param("radiusKm", "30").param("size", "3"))
+            .andExpect(jsonPath("$[*].id", contains(1, 2, 3)));
+    }
+
+    @Test
+    void boundingBoxReturnsOnlyEventsInside() throws Exception {
+        mockMvc.perform(get("/api/v1/events/near").param("bbox", "-5.70,43.52,-5.60,43.56"))
+            .andExpect(status().isOk())
+            // Ordenados por distancia al centro de la caja
+            .andExpect(jsonPath("$[*].id", contains(2, 1, 3)));
+    }
+
+    @Test
+    void invalidQueriesAreRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/events/near").param("lat", "100").param("lon", "0"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/events/near").param("lat", "" + LAT).param("lon", "" + LON).param("radiusKm", "500"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/events/near").param("lat", "" + LAT))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/events/near").param("bbox", "-5.70,43.52,-5.60"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void nearPageIsServedByPrimaryKeyLookupsOnly() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<NearbyEventDTOResponse> events = eventService.findNear(LAT, LON, 30.0, 10, false);
+
+        assertThat(events).extracting(nearby -> nearby.event().getId()).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void indexFollowsCreateUpdateAndDelete() {
+        String date = LocalDateTime.now().plusDays(1).toString();
+        EventEntity created = eventService.createFromDTO(
+            new EventDTORequest("Nuevo", "Desc", date, "Gijón", 10, 43.5455, -5.6620), 1L);
+        assertThat(ids(geoIndex.near(LAT, LON, 1, 10))).containsExactly(1L, created.getId(), 2L);
+
+        eventService.updateEvent(created.getId(), new EventDTORequest("Nuevo", "Desc", date, "Gijón", 10, null, null));
+        eventService.updateEvent(5L, new EventDTORequest("Movido", "Desc", date, "Gijón", 10, 43.5419, -5.6549));
+        assertThat(ids(geoIndex.near(LAT, LON, 1, 10))).containsExactly(1L, 2L, 5L);
+
+        eventService.deleteEvent(2L);
+        assertThat(ids(geoIndex.near(LAT, LON, 1, 10))).containsExactly(1L, 5L);
+    }
+
+    @Test
+    void changesDuringARebuildAreNotLost() {
+        GeoGridIndex[] index = new GeoGridIndex[1];
+        // Con la tabla ya leída: un evento leído pierde sus coordenadas y se crea otro detrás del último bloque
+        EventRepository racing = (EventRepository) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { EventRepository.class },
+            (proxy, method, args) -> {
+                Object chunk = method.invoke(eventRepository, args);
+                if (method.getName().equals("findGeoPointsAfterId") && !((List<?>) chunk).isEmpty()) {
+                    index[0].put(new GeoPoint(2L, null, null));
+                    index[0].put(new GeoPoint(99L, 43.5455, -5.6620));
+                }
+                return chunk;
+            });
+        index[0] = new GeoGridIndex(racing, 0.01);
+
+        index[0].rebuild();
+
+        assertThat(ids(index[0].near(LAT, LON, 1, 10))).containsExactly(1L, 99L);
+    }
+
+    @Test
+    void coordinatesMustComeInPairs() {
+        EventDTORequest onlyLatitude = new EventDTORequest("T", "D", "2030-01-01T10:00:00", "Gijón", 10, LAT, null);
+        EventDTORequest outOfRange = new EventDTORequest("T", "D", "2030-01-01T10:00:00", "Gijón", 10, 91.0, LON);
+
+        assertThat(validator.validate(onlyLatitude)).extracting(v -> v.getMessage())
+            .containsExactly("La latitud y la longitud deben indicarse juntas");
+        assertThat(validator.validate(outOfRange)).extracting(v -> v.getMessage())
+            .containsExactly("La latitud debe estar entre -90 y 90");
+    }
+
+    private static List<Long> ids(List<GeoHit> hits) {
+        return hits.stream().map(GeoHit::id).toList();
+    }
+
+    private void insert(long id, Double latitude, Double longitude) {
+        jdbcTemplate.update(
+            "INSERT INTO events (id_event, title, description, date, location, organizer_id, max_attendees, attendee_count, latitude, longitude) VALUES (?, ?, 'Desc', ?, 'Gijón', 1, 10, 0, ?, ?)",
+            id, "Evento " + id, Timestamp.valueOf(LocalDateTime.of(2030, 1, 1, 10, 0)), latitude, longitude);
+    }
+}
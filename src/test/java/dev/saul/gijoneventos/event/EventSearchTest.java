@@ -0,0 +1,150 @@
+package dev.saul.gijoneventos.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.saul.gijoneventos.IntegrationTest;
+
+class EventSearchTest extends IntegrationTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EventSearchIndex searchIndex;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @BeforeEach
+    void seed() {
+        insertUser(1, "donald", "password", "ROLE_USER");
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void foldsAccentsAndMatchesPrefixes() {
+        index(1, "Concierto de jazz", "Música en directo", "Gijón");
+        index(2, "Ruta de sidrerías", "Cata de sidra natural", "Cimadevilla, Xixón");
+        index(3, "Exposición de pingüinos", "Fotografía", "Acuario de Gijón");
+
+        assertThat(searchIndex.search("gijon", 10)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(searchIndex.search("GIJÓN", 10)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(searchIndex.search("pinguino", 10)).containsExactly(3L);
+        assertThat(searchIndex.search("sidr", 10)).containsExactly(2L);
+        assertThat(searchIndex.search("conc", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void requiresEveryTermAndIgnoresStopwords() {
+        index(1, "Concierto de jazz", "Música en directo", "Gijón");
+        index(2, "Concierto de gaitas", "Folk asturiano", "Avilés");
+
+        assertThat(searchIndex.search("concierto en gijon", 10)).containsExactly(1L);
+        assertThat(searchIndex.search("de la", 10)).isEmpty();
+        assertThat(searchIndex.search("concierto oviedo", 10)).isEmpty();
+    }
+
+    @Test
+    void ranksTitleMatchesAboveDescriptionMatches() {
+        index(1, "Mercado medieval", "Puestos y teatro de calle", "Plaza Mayor");
+        index(2, "Teatro en la playa", "Comedia", "San Lorenzo");
+        index(3, "Feria del libro", "Firmas", "Paseo de Begoña");
+
+        assertThat(searchIndex.search("teatro", 10)).containsExactly(2L, 1L);
+        // Una palabra exacta pesa más que un prefijo de otra
+        index(4, "Teatral", "Taller", "Laboral");
+        assertThat(searchIndex.search("teatro", 10)).containsExactly(2L, 1L);
+        assertThat(searchIndex.search("teatr", 10).get(0)).isIn(2L, 4L);
+    }
+
+    @Test
+    void indexFollowsCreateUpdateAndDelete() throws Exception {
+        String created = mockMvc.perform(post("/api/v1/events").with(httpBasic("donald", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"title": "Festival de cine", "description": "Cortos", "date": "2030-11-20T19:00:00", "location": "Teatro Jovellanos", "maxAttendees": 100}"""))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        mockMvc.perform(get("/api/v1/events/search").param("q", "jovellanos"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].id", contains((int) id)));
+
+        mockMvc.perform(put("/api/v1/events/" + id).with(httpBasic("donald", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"title": "Festival de cine", "description": "Cortos", "date": "2030-11-20T19:00:00", "location": "Laboral", "maxAttendees": 100}"""))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/events/search").param("q", "jovellanos"))
+            .andExpect(jsonPath("$", empty()));
+        mockMvc.perform(get("/api/v1/events/search").param("q", "laboral festival"))
+            .andExpect(jsonPath("$[*].id", contains((int) id)));
+
+        mockMvc.perform(delete("/api/v1/events/" + id).with(httpBasic("donald", "password")))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/events/search").param("q", "festival"))
+            .andExpect(jsonPath("$", empty()));
+    }
+
+    @Test
+    void blankQueryIsRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/events/search").param("q", " "))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void changesDuringARebuildAreNotLost() {
+        jdbcTemplate.update(
+            "INSERT INTO events (id_event, title, description, date, location, organizer_id, max_attendees, attendee_count) "
+                + "VALUES (1, 'Concierto de jazz', 'Música en directo', '2030-01-01 10:00:00', 'Gijón', 1, 10, 0)");
+        EventSearchIndex[] index = new EventSearchIndex[1];
+        // Con la tabla ya leída: se borra un evento del bloque y se crea otro detrás del último
+        EventRepository racing = (EventRepository) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { EventRepository.class },
+            (proxy, method, args) -> {
+                Object chunk = method.invoke(eventRepository, args);
+                if (method.getName().equals("findSummariesAfterId") && !((List<?>) chunk).isEmpty()) {
+                    index[0].remove(1L);
+                    index[0].index(summary(2, "Ruta de sidrerías", "Cata de sidra natural", "Cimadevilla"));
+                }
+                return chunk;
+            });
+        index[0] = new EventSearchIndex(racing);
+
+        index[0].rebuild();
+
+        assertThat(index[0].search("jazz", 10)).isEmpty();
+        assertThat(index[0].search("sidra", 10)).containsExactly(2L);
+    }
+
+    private void index(long id, String title, String description, String location) {
+        searchIndex.index(summary(id, title, description, location));
+    }
+
+    private static EventSummary summary(long id, String title, String description, String location) {
+        return new EventSummary(id, title, description, LocalDateTime.of(2030, 1, 1, 10, 0), location, 10,
+            1L, "Donald", "donald", "donald@example.com", "600000000", 0, null, null);
+    }
+}
@@ -0,0 +1,118 @@
+package dev.saul.gijoneventos.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import dev.saul.gijoneventos.IntegrationTest;
+import dev.saul.gijoneventos.metrics.SqlStatistics;
+import dev.saul.gijoneventos.role.RoleEntity;
+import dev.saul.gijoneventos.role.RoleRepository;
+import dev.saul.gijoneventos.user.UserEntity;
+import dev.saul.gijoneventos.user.UserRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+class EventSecondLevelCacheTest extends IntegrationTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private ReservationLedger reservationLedger;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Cache cache;
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        insertUsers(3);
+        grantToAllUsers("ROLE_USER");
+        insertEvent(1, "Concierto", LocalDateTime.of(2030, 1, 1, 20, 0), 1, 10);
+
+        cache = entityManagerFactory.getCache();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void disableTicketDrop() {
+        if (reservationLedger.isActive(1L)) {
+            eventService.setTicketDrop(1L, false);
+        }
+    }
+
+    @Test
+    void eventsAreNotCachedAndLoadsFollowUpdatesAndJoins() {
+        eventService.findById(1L);
+        // Un UPDATE masivo por join vaciaría la región entera: EventEntity no se cachea
+        assertThat(cache.contains(EventEntity.class, 1L)).isFalse();
+        assertThat(statistics.getSecondLevelCacheRegionNames()).doesNotContain("events");
+
+        eventService.updateEvent(1L, new EventDTORequest("Editado", "Desc", "2030-01-01T10:00:00", "Gijón", 10, null, null));
+        EventEntity updated = eventService.findById(1L);
+        assertThat(updated.getTitle()).isEqualTo("Editado");
+        assertThat(updated.getVersion()).isEqualTo(1);
+
+        eventService.joinEvent(1L, 2L);
+        EventEntity joined = eventService.findById(1L);
+        assertThat(joined.getAttendeeCount()).isEqualTo(1);
+        assertThat(joined.getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void ticketDropFlushesAreSeenByEntityLoads() {
+        eventService.setTicketDrop(1L, true);
+        assertThat(eventService.findById(1L).getAttendeeCount()).isZero();
+
+        eventService.joinEvent(1L, 2L);
+        reservationLedger.flush();
+
+        assertThat(eventService.findById(1L).getAttendeeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void joinsKeepUsersAndRolesCached() {
+        userRepository.findById(2L).orElseThrow();
+        assertThat(cache.contains(UserEntity.class, 2L)).isTrue();
+        assertThat(cache.contains(RoleEntity.class, 2L)).isTrue();
+
+        // SQL nativo sobre event_attendees: solo invalida lo que depende de esa tabla
+        eventService.joinEvent(1L, 3L);
+        eventService.leaveEvent(1L, 3L);
+
+        assertThat(cache.contains(UserEntity.class, 2L)).isTrue();
+        assertThat(cache.contains(RoleEntity.class, 2L)).isTrue();
+        try (SqlStatistics.Scope sql = SqlStatistics.open()) {
+            UserEntity user = userRepository.findById(2L).orElseThrow();
+            assertThat(user.getRoles()).extracting(RoleEntity::getName).containsExactly("ROLE_USER");
+            assertThat(sql.statements()).isZero();
+        }
+    }
+
+    @Test
+    void theUserRoleLookupComesFromTheQueryCache() {
+        roleRepository.findByName("ROLE_USER").orElseThrow();
+        try (SqlStatistics.Scope sql = SqlStatistics.open()) {
+            assertThat(roleRepository.findByName("ROLE_USER")).isPresent();
+            assertThat(sql.statements()).isZero();
+        }
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+}
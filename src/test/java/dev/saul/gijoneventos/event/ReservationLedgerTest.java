@@ -0,0 +1,199 @@
+package dev.saul.gijoneventos.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import dev.saul.gijoneventos.IntegrationTest;
+
+class ReservationLedgerTest extends IntegrationTest {
+
+    private static final int USERS = 3000;
+    private static final int CAPACITY = 250;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private ReservationLedger reservationLedger;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EventCatalogVersion catalogVersion;
+
+    @BeforeEach
+    void seed() {
+        insertUsers(USERS);
+        insertEvent(1, "Concierto", LocalDateTime.of(2030, 1, 1, 20, 0), 1, CAPACITY);
+        eventService.setTicketDrop(1L, true);
+    }
+
+    @AfterEach
+    void disable() {
+        eventService.setTicketDrop(1L, false);
+    }
+
+    @Test
+    void admissionIsDecidedInMemoryAndFlushedInBatches() throws Exception {
+        AtomicInteger joined = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(userId -> {
+            try {
+                eventService.joinEvent(1L, userId);
+                joined.incrementAndGet();
+            } catch (IllegalStateException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertThat(joined.get()).isEqualTo(CAPACITY);
+        assertThat(rejected.get()).isEqualTo(USERS - CAPACITY);
+        // Nada llega a la BD hasta el volcado
+        assertThat(attendeeRows()).isZero();
+        assertThat(reservationLedger.pendingWrites()).isEqualTo(CAPACITY);
+
+        reservationLedger.flush();
+
+        assertThat(reservationLedger.pendingWrites()).isZero();
+        assertThat(attendeeRows()).isEqualTo(CAPACITY);
+        assertThat(attendeeCount()).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void joinLeaveJoinEndsUpAttending() {
+        eventService.joinEvent(1L, 5L);
+        eventService.leaveEvent(1L, 5L);
+        eventService.joinEvent(1L, 5L);
+        eventService.joinEvent(1L, 5L);
+
+        reservationLedger.flush();
+
+        assertThat(attendeeRows()).isEqualTo(1);
+        assertThat(attendeeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void reactivatingReseedsSeatsLeftByAJoinThatRacedTheDeactivation() {
+        eventService.joinEvent(1L, 1L);
+        eventService.setTicketDrop(1L, false);
+        // Un join que ya había pasado isActive() llega después de desactivar y vuelve a sembrar el evento
+        reservationLedger.join(1L, 2L);
+        reservationLedger.flush();
+        // Con el modo apagado, la baja va por el camino transaccional y el libro no se entera
+        eventService.leaveEvent(1L, 2L);
+
+        eventService.setTicketDrop(1L, true);
+        eventService.joinEvent(1L, 3L);
+
+        assertThat(reservationLedger.taken(1L)).contains(2);
+    }
+
+    @Test
+    void aRestartedLedgerRecoversFromTheDatabase() {
+        for (long userId = 1; userId <= CAPACITY; userId++) {
+            eventService.joinEvent(1L, userId);
+        }
+        reservationLedger.flush();
+
+        ReservationLedger restarted = new ReservationLedger(jdbcTemplate, transactionManager, catalogVersion);
+        restarted.recover();
+
+        assertThat(restarted.isActive(1L)).isTrue();
+        assertThatThrownBy(() -> restarted.join(1L, (long) CAPACITY + 1))
+            .isInstanceOf(IllegalStateException.class);
+        restarted.leave(1L, 1L);
+        restarted.join(1L, (long) CAPACITY + 1);
+        restarted.flush();
+
+        assertThat(attendeeRows()).isEqualTo(CAPACITY);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM event_attendees WHERE event_id = 1 AND user_id = 1", Integer.class)).isZero();
+    }
+
+    @Test
+    void capacityChangesApplyToTheLiveSeats() {
+        for (long userId = 1; userId <= CAPACITY; userId++) {
+            eventService.joinEvent(1L, userId);
+        }
+
+        reservationLedger.updateCapacity(1L, CAPACITY + 1);
+        eventService.joinEvent(1L, (long) CAPACITY + 1);
+        assertThatThrownBy(() -> eventService.joinEvent(1L, (long) CAPACITY + 2))
+            .isInstanceOf(IllegalStateException.class);
+
+        // Por debajo de lo ocupado: nadie entra hasta que se liberen plazas
+        reservationLedger.updateCapacity(1L, CAPACITY - 1);
+        eventService.leaveEvent(1L, 1L);
+        assertThatThrownBy(() -> eventService.joinEvent(1L, 1L))
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(reservationLedger.taken(1L)).contains(CAPACITY);
+
+        reservationLedger.flush();
+        assertThat(attendeeRows()).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void disablingTheModeFlushesPendingJoins() {
+        eventService.joinEvent(1L, 1L);
+        eventService.joinEvent(1L, 2L);
+
+        eventService.setTicketDrop(1L, false);
+
+        assertThat(reservationLedger.isActive(1L)).isFalse();
+        assertThat(attendeeRows()).isEqualTo(2);
+        assertThat(attendeeCount()).isEqualTo(2);
+    }
+
+    private void runConcurrently(UserTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long userId = 1; userId <= USERS; userId++) {
+                long id = userId;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(id);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int attendeeRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_attendees WHERE event_id = 1", Integer.class);
+    }
+
+    private int attendeeCount() {
+        return jdbcTemplate.queryForObject("SELECT attendee_count FROM events WHERE id_event = 1", Integer.class);
+    }
+
+    @FunctionalInterface
+    private interface UserTask {
+        void run(long userId) throws Exception;
+    }
+}
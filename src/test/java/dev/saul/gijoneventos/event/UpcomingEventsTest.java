@@ -0,0 +1,164 @@
+package dev.saul.gijoneventos.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.saul.gijoneventos.IntegrationTest;
+import jakarta.persistence.EntityManagerFactory;
+
+class UpcomingEventsTest extends IntegrationTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UpcomingEventsIndex upcomingIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seed() {
+        insertUsers(1);
+        insert(1, NOW.minusDays(30));
+        insert(2, NOW.minusHours(2));
+        insert(3, NOW.plusHours(2));
+        insert(4, NOW.plusDays(1));
+        insert(5, NOW.plusDays(3));
+        insert(6, NOW.plusDays(40));
+        jdbcTemplate.update("ALTER TABLE events ALTER COLUMN id_event RESTART WITH 100");
+        upcomingIndex.rebuild();
+    }
+
+    @Test
+    void upcomingSkipsPastEventsAndPagesByCursor() throws Exception {
+        String first = mockMvc.perform(get("/api/v1/events").param("filter", "UPCOMING").param("size", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[*].id", contains(3, 4)))
+            .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(first).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/v1/events").param("filter", "UPCOMING").param("size", "2").param("cursor", cursor))
+            .andExpect(jsonPath("$.items[*].id", contains(5, 6)))
+            .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    @Test
+    void upcomingWithinTheNextWeek() throws Exception {
+        mockMvc.perform(get("/api/v1/events").param("filter", "UPCOMING").param("to", NOW.plusDays(7).toString()))
+            .andExpect(jsonPath("$.items[*].id", contains(3, 4, 5)));
+    }
+
+    @Test
+    void upcomingPageIsServedByPrimaryKeyLookupsOnly() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        EventPageDTOResponse page = eventService.findPage(EventFilter.UPCOMING, null, EventRange.ALL, null, 10, false);
+
+        assertThat(page.items()).extracting(EventDTOResponse::getId).containsExactly(3L, 4L, 5L, 6L);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void dateRangeAppliesToTheDatabaseQuery() throws Exception {
+        mockMvc.perform(get("/api/v1/events")
+                .param("from", NOW.minusDays(31).toString())
+                .param("to", NOW.plusDays(1).plusMinutes(1).toString()))
+            .andExpect(jsonPath("$.items[*].id", contains(1, 2, 3, 4)));
+
+        mockMvc.perform(get("/api/v1/events").param("from", NOW.toString()).param("to", NOW.minusDays(1).toString()))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void indexFollowsCreateUpdateAndDelete() {
+        EventEntity created = eventService.createFromDTO(
+            new EventDTORequest("Nuevo", "Desc", NOW.plusDays(2).toString(), "Gijón", 10, null, null), 1L);
+        assertThat(ids(upcomingIndex)).containsExactly(3L, 4L, created.getId(), 5L, 6L);
+
+        eventService.updateEvent(created.getId(),
+            new EventDTORequest("Nuevo", "Desc", NOW.minusDays(1).toString(), "Gijón", 10, null, null));
+        assertThat(ids(upcomingIndex)).containsExactly(3L, 4L, 5L, 6L);
+
+        eventService.updateEvent(4L, new EventDTORequest("Movido", "Desc", NOW.plusDays(50).toString(), "Gijón", 10, null, null));
+        assertThat(ids(upcomingIndex)).containsExactly(3L, 5L, 6L, 4L);
+
+        eventService.deleteEvent(5L);
+        assertThat(ids(upcomingIndex)).containsExactly(3L, 6L, 4L);
+    }
+
+    @Test
+    void pruneDropsPastDayBuckets() {
+        MovableClock clock = new MovableClock(Clock.systemDefaultZone().instant());
+        UpcomingEventsIndex index = new UpcomingEventsIndex(eventRepository, clock);
+        index.rebuild();
+        int loaded = index.size();
+
+        clock.instant = LocalDate.now().plusDays(10).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        index.prune();
+
+        assertThat(loaded).isGreaterThanOrEqualTo(4);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(ids(index)).containsExactly(6L);
+    }
+
+    private static List<Long> ids(UpcomingEventsIndex index) {
+        return index.page(EventRange.ALL, null, 100).stream().map(EventCursor::id).toList();
+    }
+
+    private void insert(long id, LocalDateTime date) {
+        insertEvent(id, "Evento " + id, date, 1, 10);
+    }
+
+    private static final class MovableClock extends Clock {
+
+        private Instant instant;
+
+        private MovableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
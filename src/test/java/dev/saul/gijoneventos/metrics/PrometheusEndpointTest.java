@@ -0,0 +1,82 @@
+package dev.saul.gijoneventos.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import dev.saul.gijoneventos.IntegrationTest;
+
+class PrometheusEndpointTest extends IntegrationTest {
+
+    private static final String SCRAPE = "/actuator/prometheus";
+
+    @BeforeEach
+    void seed() {
+        insertUser(1, "donald", "password", "ROLE_USER");
+        insertUser(2, "prometheus", "scrape", "ROLE_ADMIN");
+        insertEvent(1, "Charla", LocalDateTime.of(2030, 1, 1, 10, 0), 1, 10);
+    }
+
+    @Test
+    void scrapeExposesEndpointHibernatePoolAndBcryptMetrics() throws Exception {
+        mockMvc.perform(get("/api/v1/events")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/events/1")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/login").with(httpBasic("donald", "password"))).andExpect(status().isOk());
+
+        String body = mockMvc.perform(get(SCRAPE).with(httpBasic("prometheus", "scrape")))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/plain"))
+            .andReturn().getResponse().getContentAsString();
+
+        // El registro es el del contexto compartido: otros tests también han llamado a estos endpoints
+        assertThat(body)
+            .contains("# TYPE http_server_requests_seconds histogram")
+            .containsPattern("http_server_requests_seconds_count\\{[^}]*uri=\"/api/v1/events/\\{id\\}\"[^}]*\\} [1-9]")
+            .containsPattern("http_server_requests_seconds_bucket\\{[^}]*uri=\"/api/v1/events\",le=\"0\\.1\"\\} \\d")
+            .containsPattern("http_server_requests_seconds_bucket\\{[^}]*uri=\"/api/v1/login\",le=\"\\+Inf\"\\} [1-9]")
+            .containsPattern("(?m)^hibernate_query_executions_total [1-9]")
+            .containsPattern("(?m)^hibernate_entities_loads_total [1-9]")
+            .contains("hibernate_second_level_cache_requests_total{result=\"hit\"}")
+            .containsPattern("hibernate_cache_region_requests_total\\{region=\"users\",result=\"miss\"\\} \\d")
+            .contains("hibernate_cache_region_hit_ratio{region=\"roles\"}")
+            .contains("hikaricp_connections_pending{pool=")
+            .contains("hikaricp_connections_active{pool=")
+            .contains("hikaricp_connections_acquire_seconds_count{pool=")
+            .containsPattern("auth_password_hash_seconds_count\\{operation=\"matches\",result=\"match\"\\} [1-9]")
+            // El máximo es su propia familia gauge, nunca una serie dentro del histogram
+            .contains("# TYPE http_server_requests_seconds_max gauge")
+            .containsPattern("http_server_requests_seconds_max\\{[^}]*uri=\"/api/v1/events\"[^}]*\\} \\d");
+        assertThat(family(body, "http_server_requests_seconds")).doesNotContain("_max");
+    }
+
+    @Test
+    void scrapeNeedsAnAdminEvenFromLoopback() throws Exception {
+        // Detrás de un proxy inverso local todas las peticiones llegan desde 127.0.0.1
+        mockMvc.perform(get(SCRAPE).with(request -> {
+            request.setRemoteAddr("127.0.0.1");
+            return request;
+        })).andExpect(status().isUnauthorized());
+        mockMvc.perform(get(SCRAPE).with(httpBasic("donald", "password"))).andExpect(status().isForbidden());
+    }
+
+    // Líneas desde el # TYPE de la familia hasta el siguiente # TYPE
+    private static String family(String body, String name) {
+        int start = body.indexOf("# TYPE " + name + " ");
+        int end = body.indexOf("# TYPE ", start + 1);
+        return body.substring(start, end < 0 ? body.length() : end);
+    }
+
+    @Test
+    void namesAreSanitizedLikeTheMicrometerPrometheusRegistry() {
+        assertThat(PrometheusEndpoint.sanitize("hibernate.query.executions")).isEqualTo("hibernate_query_executions");
+        assertThat(PrometheusEndpoint.sanitize("datasource.admission.in-use")).isEqualTo("datasource_admission_in_use");
+        assertThat(PrometheusEndpoint.sanitize("2xx")).isEqualTo("_xx");
+    }
+}
@@ -0,0 +1,138 @@
+package dev.saul.gijoneventos.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import dev.saul.gijoneventos.IntegrationTest;
+import dev.saul.gijoneventos.user.UserCache;
+import dev.saul.gijoneventos.user.UserEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+@TestPropertySource(properties = "diagnostics.sql.budget.endpoints=GET /api/v1/events/{id}=1")
+class SqlBudgetTest extends IntegrationTest {
+
+    private static final int EVENTS = 30;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seed() {
+        insertUser(1, "donald", "password", "ROLE_USER");
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 2; id <= 10; id++) {
+            users.add(new Object[] { id, "User " + id, "user" + id, "user" + id + "@example.com" });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO users (id_user, full_name, username, email, phone, password) VALUES (?, ?, ?, ?, '600000000', 'x')", users);
+
+        // Organizadores distintos y asistentes: las asociaciones LAZY son las que destapan un N+1
+        List<Object[]> events = new ArrayList<>();
+        for (long id = 1; id <= EVENTS; id++) {
+            events.add(new Object[] { id, "Evento " + id, Timestamp.valueOf(LocalDateTime.of(2030, 1, 1, 10, 0).plusDays(id)), 1 + id % 10 });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO events (id_event, title, description, date, location, organizer_id, max_attendees, attendee_count) VALUES (?, ?, 'Desc', ?, 'Gijón', ?, 100, 0)",
+            events);
+        jdbcTemplate.update("INSERT INTO event_attendees (event_id, user_id) SELECT e.id_event, u.id_user FROM events e, users u WHERE u.id_user > 5");
+        jdbcTemplate.update("UPDATE events SET attendee_count = 5");
+    }
+
+    @Test
+    void listingCostsAFixedNumberOfStatements() throws Exception {
+        // Página y asistentes en lote, haya los eventos y asistentes que haya (la versión del catálogo está en memoria)
+        try (SqlStatistics.Scope sql = SqlStatistics.open()) {
+            mockMvc.perform(get("/api/v1/events")).andExpect(status().isOk());
+            assertThat(sql.statements()).isEqualTo(2);
+        }
+        try (SqlStatistics.Scope sql = SqlStatistics.open()) {
+            mockMvc.perform(get("/api/v1/events").param("size", "30")).andExpect(status().isOk());
+            assertThat(sql.statements()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void joinAndLeaveCostTwoStatements() throws Exception {
+        login();
+        try (SqlStatistics.Scope sql = SqlStatistics.open()) {
+            mockMvc.perform(post("/api/v1/events/1/join").with(httpBasic("donald", "password"))).andExpect(status().isOk());
+            assertThat(sql.statements()).isEqualTo(2);
+        }
+        try (SqlStatistics.Scope sql = SqlStatistics.open()) {
+            mockMvc.perform(post("/api/v1/events/1/leave").with(httpBasic("donald", "password"))).andExpect(status().isOk());
+            assertThat(sql.statements()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void loginLoadsTheUserOnceAndThenServesItFromTheCache() throws Exception {
+        UserEntity donald = new UserEntity();
+        donald.setId(1L);
+        donald.setUsername("donald");
+        userCache.invalidate(donald);
+        entityManagerFactory.getCache().evictAll();
+
+        // Usuario y roles
+        try (SqlStatistics.Scope sql = SqlStatistics.open()) {
+            login();
+            assertThat(sql.statements()).isEqualTo(2);
+        }
+        // Los roles del usuario ya están en la caché de segundo nivel
+        userCache.invalidate(donald);
+        try (SqlStatistics.Scope sql = SqlStatistics.open()) {
+            login();
+            assertThat(sql.statements()).isEqualTo(1);
+        }
+        try (SqlStatistics.Scope sql = SqlStatistics.open()) {
+            login();
+            assertThat(sql.statements()).isZero();
+        }
+    }
+
+    @Test
+    void responsesCarryTheCountsAndOverBudgetRequestsAreCounted() throws Exception {
+        double before = exceeded();
+
+        mockMvc.perform(get("/api/v1/events/3"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Sql-Statements", "3"))
+            .andExpect(header().string("X-Sql-Rows", "7"))
+            .andExpect(header().string("Server-Timing", startsWith("db;dur=")));
+
+        assertThat(exceeded()).isEqualTo(before + 1);
+        assertThat(registry.get("sql.request.statements").tags("method", "GET", "uri", "/api/v1/events/{id}").summary().max())
+            .isEqualTo(3);
+    }
+
+    private void login() throws Exception {
+        mockMvc.perform(get("/api/v1/login").with(httpBasic("donald", "password"))).andExpect(status().isOk());
+    }
+
+    private double exceeded() {
+        Counter counter = registry.find("sql.request.budget.exceeded").tags("uri", "/api/v1/events/{id}").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
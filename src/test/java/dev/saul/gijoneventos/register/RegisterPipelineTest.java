@@ -0,0 +1,106 @@
+package dev.saul.gijoneventos.register;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import dev.saul.gijoneventos.IntegrationTest;
+import dev.saul.gijoneventos.security.PasswordHashingExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+
+class RegisterPipelineTest extends IntegrationTest {
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashing;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void registrationReportsEveryStage() throws Exception {
+        register("daisy", "daisy@example.com")
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.username").value("daisy"));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE username = 'daisy'", Integer.class)).isEqualTo(1);
+
+        for (String stage : new String[] { "validate", "queue", "hash", "insert" }) {
+            assertThat(registry.get("register.pipeline").tag("stage", stage).timer().count()).isPositive();
+        }
+    }
+
+    @Test
+    void duplicatesAreRejectedUpFrontOrByTheUniqueConstraints() throws Exception {
+        register("daisy", "daisy@example.com").andExpect(status().isCreated());
+
+        // Conocidos por el filtro de usuarios: 409 sin llegar a la cola de hashing
+        mockMvc.perform(post("/api/v1/register").contentType(MediaType.APPLICATION_JSON).content(body("daisy", "other@example.com")))
+            .andExpect(status().isConflict());
+        mockMvc.perform(post("/api/v1/register").contentType(MediaType.APPLICATION_JSON).content(body("donald", "daisy@example.com")))
+            .andExpect(status().isConflict());
+
+        // Insertado por detrás del filtro: lo para la restricción única en el INSERT
+        jdbcTemplate.update("INSERT INTO users (full_name, username, email, phone, password) "
+            + "VALUES ('Donald User', 'donald', 'donald@example.com', '600000000', 'x')");
+        register("donald", "donald@example.com").andExpect(status().isConflict());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    void aFullHashingQueueAnswersTooManyRequests() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // Un hash ocupando el único hilo y otro llenando la cola
+            passwordHashing.submit(() -> {
+                running.countDown();
+                return await(release);
+            });
+            assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+            passwordHashing.submit(() -> await(release));
+            double rejected = registry.get("password.hashing.rejected").counter().count();
+
+            mockMvc.perform(post("/api/v1/register").contentType(MediaType.APPLICATION_JSON).content(body("daisy", "daisy@example.com")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+            assertThat(registry.get("password.hashing.rejected").counter().count()).isEqualTo(rejected + 1);
+        } finally {
+            release.countDown();
+        }
+        register("daisy", "daisy@example.com").andExpect(status().isCreated());
+    }
+
+    private ResultActions register(String username, String email) throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/v1/register").contentType(MediaType.APPLICATION_JSON).content(body(username, email)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+
+    private static String body(String username, String email) {
+        return """
+            {"fullName":"%s User","username":"%s","email":"%s","phone":"600000000","password":"secret","confirmPassword":"secret"}
+            """.formatted(username, username, email);
+    }
+
+    private static String await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "";
+    }
+}
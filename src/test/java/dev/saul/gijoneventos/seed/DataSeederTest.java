@@ -0,0 +1,72 @@
+package dev.saul.gijoneventos.seed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+// Contexto y BD propios: comprueba lo sembrado al arrancar, y los IntegrationTest vacían testdb en cada test
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:seedtest",
+    "seed.enabled=true",
+    "seed.users=50",
+    "seed.events=20",
+    "seed.attendances=400",
+    "seed.password=secret"
+})
+@ActiveProfiles("h2")
+@DirtiesContext
+class DataSeederTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private DataSeeder dataSeeder;
+
+    @Test
+    void seedsUsersEventsAndAttendancesWithinCapacity() {
+        assertThat(count("SELECT COUNT(*) FROM users")).isEqualTo(52);
+        assertThat(count("SELECT COUNT(*) FROM events")).isEqualTo(20);
+        assertThat(count("SELECT COUNT(*) FROM event_attendees")).isBetween(1, 400);
+        assertThat(count("SELECT COUNT(*) FROM events e WHERE e.attendee_count > e.max_attendees")).isZero();
+        assertThat(count("""
+            SELECT COUNT(*) FROM events e
+            WHERE e.attendee_count <> (SELECT COUNT(*) FROM event_attendees a WHERE a.event_id = e.id_event)""")).isZero();
+
+        Map<String, Object> daisy = jdbcTemplate.queryForMap(
+            "SELECT u.password, r.name FROM users u JOIN roles_users ru ON ru.user_id = u.id_user JOIN roles r ON r.id_role = ru.role_id WHERE u.username = 'daisy'");
+        assertThat(daisy.get("NAME")).isEqualTo("ROLE_ADMIN");
+        assertThat(passwordEncoder.matches("secret", (String) daisy.get("PASSWORD"))).isTrue();
+
+        // Las secuencias siguen después de los identificadores sembrados
+        jdbcTemplate.update(
+            "INSERT INTO users (full_name, username, email, phone, password) VALUES ('Nuevo', 'nuevo', 'nuevo@example.com', '600000000', 'x')");
+        assertThat(count("SELECT id_user FROM users WHERE username = 'nuevo'")).isEqualTo(53);
+    }
+
+    @Test
+    void runningAgainOnAPopulatedDatabaseChangesNothing() throws Exception {
+        List<Long> before = jdbcTemplate.queryForList("SELECT event_id * 100000 + user_id FROM event_attendees ORDER BY 1", Long.class);
+
+        dataSeeder.run(null);
+
+        assertThat(jdbcTemplate.queryForList("SELECT event_id * 100000 + user_id FROM event_attendees ORDER BY 1", Long.class))
+            .isEqualTo(before);
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+}
@@ -0,0 +1,95 @@
+package dev.saul.gijoneventos.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import dev.saul.gijoneventos.IntegrationTest;
+import dev.saul.gijoneventos.register.RegisterDTORequest;
+import dev.saul.gijoneventos.register.RegisterService;
+import io.micrometer.core.instrument.MeterRegistry;
+
+class UserCacheTest extends IntegrationTest {
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private RegisterService registerService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void repeatedLookupsAreServedFromTheCacheWithPrecomputedAuthorities() {
+        registerService.registerUser(new RegisterDTORequest("Daisy User", "daisy", "daisy@example.com", "123456789", "secret", "secret")).join();
+        double hitsBefore = hits("users.by-username");
+
+        UserSnapshot first = userCache.findByUsername("daisy").orElseThrow();
+        UserSnapshot second = userCache.findByUsername("daisy").orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.authorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+        assertThat(hits("users.by-username") - hitsBefore).isEqualTo(1);
+        // La carga por username también alimenta el índice por id
+        assertThat(userCache.findById(first.id())).containsSame(first);
+    }
+
+    @Test
+    void unknownUsersAreNotCachedSoARegistrationIsSeenImmediately() {
+        assertThat(userCache.findByUsername("donald")).isEmpty();
+
+        registerService.registerUser(new RegisterDTORequest("Donald User", "donald", "donald@example.com", "987654321", "secret", "secret")).join();
+
+        assertThat(userCache.findByUsername("donald")).map(UserSnapshot::fullName).contains("Donald User");
+    }
+
+    @Test
+    void savingAUserInvalidatesItsSnapshot() {
+        registerService.registerUser(new RegisterDTORequest("Daisy User", "daisy", "daisy@example.com", "123456789", "secret", "secret")).join();
+        Long id = userCache.findByUsername("daisy").orElseThrow().id();
+
+        UserEntity daisy = userRepository.findById(id).orElseThrow();
+        daisy.setFullName("Daisy Duck");
+        userService.save(daisy);
+
+        assertThat(userCache.findByUsername("daisy")).map(UserSnapshot::fullName).contains("Daisy Duck");
+        assertThat(userCache.findById(id)).map(UserSnapshot::fullName).contains("Daisy Duck");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aLoadThatOverlapsAnInvalidationIsNotCached() {
+        registerService.registerUser(new RegisterDTORequest("Daisy User", "daisy", "daisy@example.com", "123456789", "secret", "secret")).join();
+        UserCache[] cache = new UserCache[1];
+        // La fila ya está leída cuando otro hilo guarda el cambio e invalida, antes de que la carga llegue a la caché
+        UserRepository racing = (UserRepository) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { UserRepository.class },
+            (proxy, method, args) -> {
+                Object row = method.invoke(userRepository, args);
+                if (method.getName().equals("findByUsername")) {
+                    jdbcTemplate.update("UPDATE users SET full_name = 'Daisy Duck' WHERE username = 'daisy'");
+                    cache[0].invalidate(((Optional<UserEntity>) row).orElseThrow());
+                }
+                return row;
+            });
+        cache[0] = new UserCache(racing, 100, Duration.ofMinutes(5));
+
+        assertThat(cache[0].findByUsername("daisy")).map(UserSnapshot::fullName).contains("Daisy User");
+        assertThat(cache[0].findByUsername("daisy")).map(UserSnapshot::fullName).contains("Daisy Duck");
+    }
+
+    private double hits(String cache) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", "hit").functionCounter().count();
+    }
+}
@@ -0,0 +1,111 @@
+package dev.saul.gijoneventos.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import dev.saul.gijoneventos.IntegrationTest;
+import dev.saul.gijoneventos.metrics.SqlStatistics;
+import dev.saul.gijoneventos.register.RegisterDTORequest;
+import dev.saul.gijoneventos.register.RegisterService;
+import io.micrometer.core.instrument.MeterRegistry;
+
+class UserExistenceFilterTest extends IntegrationTest {
+
+    @Autowired
+    private UserExistenceFilter existenceFilter;
+
+    @Autowired
+    private RegisterService registerService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void seed() {
+        // Sin id explícito: el registro del test usa la misma secuencia de identidad
+        for (int i = 1; i <= 20; i++) {
+            jdbcTemplate.update(
+                "INSERT INTO users (full_name, username, email, phone, password) VALUES (?, ?, ?, '600000000', 'x')",
+                "User " + i, "user" + i, "user" + i + "@example.com");
+        }
+        // Los usuarios se acaban de escribir por JDBC, por detrás del filtro
+        existenceFilter.rebuild();
+    }
+
+    @Test
+    void newUsernamesAreAvailableWithoutTouchingTheDatabase() throws Exception {
+        double absentBefore = lookups("absent");
+        try (SqlStatistics.Scope sql = SqlStatistics.open()) {
+            mockMvc.perform(get("/api/v1/register/available").param("username", "newcomer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("newcomer"))
+                .andExpect(jsonPath("$.available").value(true));
+            assertThat(sql.statements()).isZero();
+        }
+        assertThat(lookups("absent")).isEqualTo(absentBefore + 1);
+
+        mockMvc.perform(get("/api/v1/register/available").param("username", "user7"))
+            .andExpect(jsonPath("$.available").value(false));
+        mockMvc.perform(get("/api/v1/register/available").param("username", " "))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void registrationsAreAddedAndDuplicatesAreRejectedBeforeHashing() throws Exception {
+        registerService.registerUser(new RegisterDTORequest("Daisy User", "daisy", "daisy@example.com", "600000000", "secret", "secret")).join();
+        mockMvc.perform(get("/api/v1/register/available").param("username", "daisy"))
+            .andExpect(jsonPath("$.available").value(false));
+
+        long hashes = registry.get("register.pipeline").tag("stage", "hash").timer().count();
+        mockMvc.perform(post("/api/v1/register")
+                .contentType("application/json")
+                .content("""
+                    {"fullName":"Otro","username":"user3","email":"new@example.com","phone":"600000000","password":"secret","confirmPassword":"secret"}
+                    """))
+            .andExpect(status().isConflict());
+        assertThat(registry.get("register.pipeline").tag("stage", "hash").timer().count()).isEqualTo(hashes);
+    }
+
+    @Test
+    void keysAreCaseInsensitiveSoOnlyFalsePositivesReachTheDatabase() throws Exception {
+        double falsePositives = registry.get("users.existence-filter.false-positives").counter().count();
+
+        // H2 distingue mayúsculas: el filtro dice "puede estar" y la BD lo desmiente
+        mockMvc.perform(get("/api/v1/register/available").param("username", "USER5"))
+            .andExpect(jsonPath("$.available").value(true));
+
+        assertThat(registry.get("users.existence-filter.false-positives").counter().count()).isEqualTo(falsePositives + 1);
+        assertThat(registry.get("users.existence-filter.false-positive-rate").gauge().value()).isEqualTo(0.01);
+        assertThat(registry.get("users.existence-filter.entries").gauge().value()).isEqualTo(40);
+    }
+
+    @Test
+    void theMeasuredFalsePositiveRateStaysNearTheTarget() {
+        UserExistenceFilter.BloomFilter filter = new UserExistenceFilter.BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("u:present" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("u:present" + i)).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("u:absent" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives / 100_000.0).isLessThan(0.015);
+        assertThat(filter.estimatedFalsePositiveRate()).isBetween(0.005, 0.015);
+    }
+
+    private double lookups(String result) {
+        return registry.get("users.existence-filter.lookups").tag("result", result).counter().count();
+    }
+}